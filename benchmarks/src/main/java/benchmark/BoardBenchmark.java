@@ -0,0 +1,45 @@
+package benchmark;
+
+import chess.ChessBoard;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures copying, comparing and hashing whole boards
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    private ChessBoard board;
+    private ChessBoard equalBoard;
+    private ChessBoard target;
+
+    @Setup
+    public void setUp() {
+        board = Positions.middlegame().getBoard();
+        equalBoard = Positions.middlegame().getBoard();
+        target = new ChessBoard();
+    }
+
+    @Benchmark
+    public ChessBoard setBoard() {
+        target.setBoard(board);
+        return target;
+    }
+
+    @Benchmark
+    public boolean equalBoards() {
+        return board.equals(equalBoard);
+    }
+
+    @Benchmark
+    public int boardHashCode() {
+        return board.hashCode();
+    }
+}
@@ -0,0 +1,106 @@
+package benchmark;
+
+import chess.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the ChessGame rules the server runs on every move
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+
+    // The knight on c3 is pinned by the bishop on b4, so the middlegame move is the pawn taking on d5
+    private static final ChessMove PAWN_CAPTURE = new ChessMove(new ChessPosition(4, 5), new ChessPosition(5, 4), null);
+
+    private ChessGame middlegame;
+    private ChessPosition queen;
+
+    /**
+     * Games one move short of the positions measured. Each benchmark makes that move, so the game
+     * has no cached status, and takes it back before returning, so the state never needs resetting.
+     * makeMove measures making and taking back a move on its own.
+     */
+    @State(Scope.Thread)
+    public static class MoveState {
+        private ChessGame moveGame;
+        private ChessGame middlegame;
+        private ChessMove middlegameMove;
+        private ChessGame checkmate;
+        private ChessMove checkmateMove;
+        private ChessGame stalemate;
+        private ChessMove stalemateMove;
+
+        @Setup
+        public void setUp() {
+            moveGame = Positions.middlegame();
+            middlegame = Positions.middlegame();
+            middlegameMove = middlegame.undoMove();
+            checkmate = Positions.checkmate();
+            checkmateMove = checkmate.undoMove();
+            stalemate = Positions.beforeStalemate();
+            stalemateMove = new ChessMove(new ChessPosition(5, 7), new ChessPosition(6, 7), null);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        middlegame = Positions.middlegame();
+        queen = Positions.find(middlegame.getBoard(), ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN);
+    }
+
+    @Benchmark
+    public Collection<ChessMove> validMoves() {
+        return middlegame.validMoves(queen);
+    }
+
+    @Benchmark
+    public boolean isInCheck() {
+        return middlegame.isInCheck(ChessGame.TeamColor.WHITE);
+    }
+
+    @Benchmark
+    public ChessMove makeMove(MoveState state) throws InvalidMoveException {
+        state.moveGame.makeMove(PAWN_CAPTURE);
+        return state.moveGame.undoMove();
+    }
+
+    @Benchmark
+    public boolean isInCheckmate(MoveState state) {
+        MoveUndo undo = state.checkmate.applyMove(state.checkmateMove);
+        boolean checkmate = state.checkmate.isInCheckmate(ChessGame.TeamColor.WHITE);
+        state.checkmate.unmakeMove(undo);
+        return checkmate;
+    }
+
+    @Benchmark
+    public boolean isNotInCheckmate(MoveState state) {
+        MoveUndo undo = state.middlegame.applyMove(state.middlegameMove);
+        boolean checkmate = state.middlegame.isInCheckmate(ChessGame.TeamColor.WHITE);
+        state.middlegame.unmakeMove(undo);
+        return checkmate;
+    }
+
+    @Benchmark
+    public boolean isInStalemate(MoveState state) {
+        MoveUndo undo = state.stalemate.applyMove(state.stalemateMove);
+        boolean stalemate = state.stalemate.isInStalemate(ChessGame.TeamColor.BLACK);
+        state.stalemate.unmakeMove(undo);
+        return stalemate;
+    }
+
+    @Benchmark
+    public boolean isNotInStalemate(MoveState state) {
+        MoveUndo undo = state.middlegame.applyMove(state.middlegameMove);
+        boolean stalemate = state.middlegame.isInStalemate(ChessGame.TeamColor.WHITE);
+        state.middlegame.unmakeMove(undo);
+        return stalemate;
+    }
+}
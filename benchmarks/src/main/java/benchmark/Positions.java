@@ -0,0 +1,94 @@
+package benchmark;
+
+import chess.*;
+
+/**
+ * Builds the positions the benchmarks run against using only the public chess API
+ */
+final class Positions {
+
+    private Positions() {
+
+    }
+
+    /**
+     * @return a new game in the starting position
+     */
+    static ChessGame start() {
+        return new ChessGame();
+    }
+
+    /**
+     * @return a game after a quiet Italian Game opening, with every piece type still on the board
+     */
+    static ChessGame middlegame() {
+        return play("e2 e4", "e7 e5", "g1 f3", "b8 c6", "f1 c4", "f8 c5", "c2 c3", "g8 f6",
+                "d2 d4", "e5 d4", "c3 d4", "c5 b4", "b1 c3", "d7 d5");
+    }
+
+    /**
+     * @return a game where white has been checkmated (Fool's Mate)
+     */
+    static ChessGame checkmate() {
+        return play("f2 f3", "e7 e5", "g2 g4", "d8 h4");
+    }
+
+    /**
+     * @return a game where black is to move and has no legal moves but is not in check
+     */
+    static ChessGame stalemate() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(new ChessPosition(8, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        board.addPiece(new ChessPosition(6, 7), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        board.addPiece(new ChessPosition(1, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        return game;
+    }
+
+    /**
+     * @return a game where white's queen move from g5 to g6 stalemates black
+     */
+    static ChessGame beforeStalemate() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(new ChessPosition(8, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        board.addPiece(new ChessPosition(5, 7), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        board.addPiece(new ChessPosition(1, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        return game;
+    }
+
+    /**
+     * Finds a piece of the given team and type on the board
+     */
+    static ChessPosition find(ChessBoard board, ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        for (ChessPosition position : board.findAllPieces(color)) {
+            if (board.getPiece(position).getPieceType() == type) {
+                return position;
+            }
+        }
+
+        throw new IllegalStateException("No " + color + " " + type + " on the board");
+    }
+
+    /**
+     * Plays moves written as "start end" squares, e.g. "e2 e4"
+     */
+    private static ChessGame play(String... moves) {
+        ChessGame game = new ChessGame();
+
+        try {
+            for (String move : moves) {
+                game.makeMove(new ChessMove(new ChessPosition(move.substring(0, 2)), new ChessPosition(move.substring(3, 5)), null));
+            }
+        } catch (InvalidMoveException e) {
+            throw new IllegalStateException("Benchmark position contains an invalid move", e);
+        }
+
+        return game;
+    }
+}
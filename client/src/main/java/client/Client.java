@@ -21,7 +21,6 @@ public class Client {
     private final NotificationHandler notificationHandler;
     private final String serverUrl;
     private State state = State.LOGGEDOUT;
-    private int currentGameIndex = 0;
     private int currentGameID = 0;
     private ChessGame.TeamColor teamColor = ChessGame.TeamColor.WHITE;
 
@@ -151,19 +150,17 @@ public class Client {
         }
     }
     public String list() throws ResponseException {
-        ListRequest request = new ListRequest(visitorAuth);
-
         try {
-            ListResult result = server.list(visitorAuth, request);
+            ArrayList<GameInfo> games = listAllGames();
 
-            if (result.games().isEmpty()) {
+            if (games.isEmpty()) {
                 return "No games found.";
             }
 
             StringBuilder str = new StringBuilder();
 
-            for (int i = 0; i < result.games().size(); ++i) {
-                GameData game = result.games().get(i);
+            for (int i = 0; i < games.size(); ++i) {
+                GameInfo game = games.get(i);
 
                 str.append((i + 1)).append(". Game name: ").append(game.gameName()).append("\tWhite: ")
                         .append(game.whiteUsername()).append("\tBlack: ").append(game.blackUsername()).append("\n");
@@ -197,28 +194,25 @@ public class Client {
         ChessGame.TeamColor color = params[1].equalsIgnoreCase("white") ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
         int gameInt = Integer.parseInt(params[0]);
 
-        ListRequest listRequest = new ListRequest(visitorAuth);
-
         try {
-            ListResult listResult = server.list(visitorAuth, listRequest);
+            ArrayList<GameInfo> games = listAllGames();
 
-            if (gameInt > listResult.games().size()) {
+            if (gameInt > games.size()) {
                 throw new ResponseException("");
             }
 
-            int gameID = listResult.games().get(gameInt-1).gameID();
+            int gameID = games.get(gameInt-1).gameID();
 
             JoinRequest request = new JoinRequest(color, gameID);
 
             JoinResult result = server.join(visitorAuth, request);
 
             state = State.INGAME;
-            currentGameIndex = gameInt;
             currentGameID = gameID;
             teamColor = color;
 
             ws = new WebSocketFacade(serverUrl, notificationHandler);
-            ws.connect(visitorAuth, currentGameIndex > listResult.games().size() ? 0 : currentGameIndex, teamColor);
+            ws.connect(visitorAuth, currentGameID, teamColor);
 
             return "";
         } catch (ResponseException e) {
@@ -237,24 +231,21 @@ public class Client {
         }
 
         int gameInt = Integer.parseInt(params[0]);
-        ListRequest listRequest = new ListRequest(visitorAuth);
-
         try {
-            ListResult listResult = server.list(visitorAuth, listRequest);
+            ArrayList<GameInfo> games = listAllGames();
 
-            if (gameInt > listResult.games().size()) {
+            if (gameInt > games.size()) {
                 throw new ResponseException("");
             }
 
-            int gameID = listResult.games().get(gameInt-1).gameID();
+            int gameID = games.get(gameInt-1).gameID();
 
             state = State.OBSERVING;
-            currentGameIndex = gameInt;
             currentGameID = gameID;
             teamColor = ChessGame.TeamColor.WHITE;
 
             ws = new WebSocketFacade(serverUrl, notificationHandler);
-            ws.connect(visitorAuth, currentGameIndex > listResult.games().size() ? 0 : currentGameIndex, null);
+            ws.connect(visitorAuth, currentGameID, null);
 
             return "";
         } catch (ResponseException e) {
@@ -281,7 +272,7 @@ public class Client {
     // IN GAME COMMANDS
     public String redraw() throws ResponseException {
         try {
-            return printGame(currentGameIndex, teamColor == ChessGame.TeamColor.WHITE, null, null);
+            return printGame(currentGameID, teamColor == ChessGame.TeamColor.WHITE, null, null);
         } catch (ResponseException e) {
             throw new ResponseException("Could not redraw the game.");
         }
@@ -296,12 +287,12 @@ public class Client {
             String start = params[0];
             String end = params[1];
             String promotion = params.length == 3 ? params[2] : null;
-            ListRequest listRequest = new ListRequest(visitorAuth);
-            ListResult listResult = server.list(visitorAuth, listRequest);
-            if (currentGameIndex > listResult.games().size()) {
+            GameData gameData;
+            try {
+                gameData = server.getGame(visitorAuth, currentGameID);
+            } catch (ResponseException e) {
                 throw new ResponseException("Couldn't find the game.");
             }
-            GameData gameData = listResult.games().get(currentGameIndex-1);
             if (gameData.game().isFinished()) {
                 throw new ResponseException("The game is already over.");
             }
@@ -313,13 +304,13 @@ public class Client {
             } catch (InvalidMoveException e) {
                 throw new ResponseException("Invalid move notation.");
             }
-            ChessMove move = new ChessMove(startPos, endPos, promotion == null ? null : convertToPieceType(promotion));
+            ChessMove move = ChessMove.of(startPos, endPos, promotion == null ? null : convertToPieceType(promotion));
             try {
                 if (gameData.game().getTeamTurn() != teamColor) {
                     throw new InvalidMoveException("It isn't your turn.");
                 }
                 gameData.game().makeMove(move);
-                ws.makeMove(visitorAuth, currentGameIndex, move, printGame(currentGameIndex, teamColor != ChessGame.TeamColor.WHITE, null, move));
+                ws.makeMove(visitorAuth, currentGameID, move, printGame(currentGameID, teamColor != ChessGame.TeamColor.WHITE, null, move));
             } catch (InvalidMoveException e) {
                 throw new ResponseException(e.getMessage());
             }
@@ -331,7 +322,7 @@ public class Client {
     public String highlight(String... params) throws ResponseException {
         if (params.length == 1) {
             try {
-                return printGame(currentGameIndex, teamColor == ChessGame.TeamColor.WHITE, params[0], null);
+                return printGame(currentGameID, teamColor == ChessGame.TeamColor.WHITE, params[0], null);
             } catch (ResponseException e) {
                 throw new ResponseException("Could not highlight the piece.");
             }
@@ -344,7 +335,6 @@ public class Client {
         ws.leave(visitorAuth, currentGameID);
         ws = null;
         currentGameID = 0;
-        currentGameIndex = 0;
         return "Exited game.";
     }
 
@@ -393,9 +383,9 @@ public class Client {
     public String confirmResignation() throws ResponseException {
         state = State.INGAME;
         ws.resign(visitorAuth, currentGameID);
-        ListRequest listRequest = new ListRequest(visitorAuth);
-        ListResult listResult = server.list(visitorAuth, listRequest);
-        if (currentGameIndex > listResult.games().size()) {
+        try {
+            server.getGame(visitorAuth, currentGameID);
+        } catch (ResponseException e) {
             throw new ResponseException("Game not found.");
         }
         return "";
@@ -406,13 +396,14 @@ public class Client {
     }
 
     // OTHER METHODS
-    public String printGame(int gameIndex, boolean playAsWhite, String highlightedTile, ChessMove move) throws ResponseException {
-        ListRequest listRequest = new ListRequest(visitorAuth);
+    public String printGame(int gameID, boolean playAsWhite, String highlightedTile, ChessMove move) throws ResponseException {
         playAsWhite = teamColor == ChessGame.TeamColor.WHITE;
         try {
-            ListResult listResult = server.list(visitorAuth, listRequest);
-            if (gameIndex > listResult.games().size()) {
-                throw new ResponseException("Game: " + gameIndex + " not found in " + listResult.games().size() + " games.");
+            GameData gameData;
+            try {
+                gameData = server.getGame(visitorAuth, gameID);
+            } catch (ResponseException e) {
+                throw new ResponseException("Game: " + gameID + " not found.");
             }
             String defaultColor = "\u001b[39;49m";
             String whiteOnDark = "\u001b[39;47m";
@@ -421,7 +412,7 @@ public class Client {
             String blackOnLight = "\u001b[30;100m";
             String whiteOnValid = "\u001b[39;43m";
             String blackOnValid = "\u001b[30;43m";
-            ChessGame game = listResult.games().get(gameIndex-1).game();
+            ChessGame game = gameData.game();
             ArrayList<ChessMove> validMoves = new ArrayList<>();
             try {
                 if (highlightedTile != null) {
@@ -438,7 +429,7 @@ public class Client {
             for (int i = 0; i < 8; ++i) {
                 str += defaultColor + "\u2003" + (playAsWhite ? 8 - i : i + 1) + " ";
                 for (int j = 0; j < 8; ++j) {
-                    ChessPosition pos = new ChessPosition(playAsWhite ? 8-i : i+1, playAsWhite ? j+1 : 8-j);
+                    ChessPosition pos = ChessPosition.of(playAsWhite ? 8-i : i+1, playAsWhite ? j+1 : 8-j);
                     ChessPiece piece = game.getBoard().getPiece(pos);
                     boolean isValid = false;
                     for (int k = 0; k < validMoves.size(); ++k) {
@@ -467,6 +458,21 @@ public class Client {
             throw new ResponseException(e.getMessage());
         }
     }
+    /**
+     * Reads every page of the game list, so games keep the numbers the list command shows
+     */
+    private ArrayList<GameInfo> listAllGames() throws ResponseException {
+        ArrayList<GameInfo> games = new ArrayList<>();
+        Integer after = null;
+
+        do {
+            ListResult page = server.list(visitorAuth, new ListRequest(visitorAuth, after, null, null, null, null));
+            games.addAll(page.games());
+            after = page.nextCursor();
+        } while (after != null);
+
+        return games;
+    }
     private ChessPiece.PieceType convertToPieceType(String type) {
         switch (type.toLowerCase()) {
             case "king" -> {
@@ -2,10 +2,12 @@ package client;
 
 import com.google.gson.Gson;
 
+import model.GameData;
 import request.*;
 
 import java.io.*;
 import java.net.*;
+import java.nio.charset.StandardCharsets;
 
 public class ServerFacade {
 
@@ -41,10 +43,15 @@ public class ServerFacade {
     }
 
     public ListResult list(String authToken, ListRequest listRequest) throws ResponseException {
-        var path = "/game";
+        var path = "/game" + query(listRequest);
         return this.makeRequest("GET", path, null, ListResult.class, authToken);
     }
 
+    public GameData getGame(String authToken, int gameID) throws ResponseException {
+        var path = "/game/" + gameID;
+        return this.makeRequest("GET", path, null, GameData.class, authToken);
+    }
+
     public ClearResult clear() throws ResponseException {
         var path = "/db";
         return this.makeRequest("DELETE", path, null, ClearResult.class, null);
@@ -80,6 +87,23 @@ public class ServerFacade {
         }
     }
 
+    private static String query(ListRequest request) {
+        StringBuilder query = new StringBuilder();
+        addParam(query, "after", request.after());
+        addParam(query, "limit", request.limit());
+        addParam(query, "player", request.player());
+        addParam(query, "open", request.open());
+        addParam(query, "finished", request.finished());
+        return query.toString();
+    }
+
+    private static void addParam(StringBuilder query, String name, Object value) {
+        if (value != null) {
+            query.append(query.isEmpty() ? '?' : '&').append(name).append('=')
+                    .append(URLEncoder.encode(value.toString(), StandardCharsets.UTF_8));
+        }
+    }
+
     private static void writeBody(Object request, HttpURLConnection http) throws IOException {
         if (request != null) {
             http.addRequestProperty("Content-Type", "application/json");
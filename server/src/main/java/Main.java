@@ -11,5 +11,10 @@ public class Main {
         Server server = new Server();
         server.run(8080);
 
+        // Save games still waiting to be written when the process is stopped
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (!server.isStopped()) { server.stop(); }
+        }));
+
     }
 }
\ No newline at end of file
@@ -0,0 +1,506 @@
+package dataaccess;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded pool of JDBC connections. Connections handed out by borrow go back to the pool when
+ * closed, and each keeps a cache of its prepared statements, so closing a statement leaves it
+ * ready to be prepared again by the next request with the same SQL.
+ * <p>
+ * Connections that have sat idle for a while are checked before being handed out, and ones idle
+ * longer than the idle timeout are closed down to the minimum size. warmUp opens the minimum
+ * straight away, and the evictor tops the pool back up to it.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    /**
+     * Opens a new physical connection
+     */
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    /**
+     * @param minIdle connections kept open and ready even when nothing is borrowing them
+     * @param maxSize the most connections open at once, borrowers wait beyond this
+     * @param connectionTimeoutMillis how long a borrower waits for a connection before failing
+     * @param idleTimeoutMillis how long a connection can sit idle before it may be closed
+     * @param validateAfterMillis how long a connection can sit idle before it is checked when borrowed
+     * @param statementCacheSize how many prepared statements each connection keeps
+     */
+    public record Config(int minIdle, int maxSize, long connectionTimeoutMillis, long idleTimeoutMillis,
+                         long validateAfterMillis, int statementCacheSize) {
+        public static final Config DEFAULT = new Config(2, 16, 30_000, 600_000, 5_000, 64);
+    }
+
+    /**
+     * @param active connections currently borrowed
+     * @param idle connections waiting in the pool
+     * @param borrows how many times a connection has been borrowed
+     * @param totalWaitNanos time spent waiting for connections, over every borrow
+     * @param maxWaitNanos the longest any borrow has waited
+     * @param statementCacheHits prepared statements reused from a connection's cache
+     * @param statementCacheMisses prepared statements that had to be prepared on the server
+     */
+    public record Metrics(int active, int idle, long borrows, long totalWaitNanos, long maxWaitNanos,
+                          long statementCacheHits, long statementCacheMisses) {
+        public double averageWaitMillis() {
+            return borrows == 0 ? 0 : totalWaitNanos / 1e6 / borrows;
+        }
+    }
+
+    private final ConnectionFactory factory;
+    private final Config config;
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    private final ScheduledExecutorService evictor;
+
+    // Physical connections open or being opened, which warmUp and borrow both keep within maxSize
+    private final AtomicInteger opened = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong borrows = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+
+    private volatile boolean closed;
+
+    public ConnectionPool(ConnectionFactory factory, Config config) {
+        this.factory = factory;
+        this.config = config;
+        permits = new Semaphore(config.maxSize(), true);
+
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(config.idleTimeoutMillis() / 2, 1_000);
+        evictor.scheduleWithFixedDelay(this::maintain, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens connections until minIdle are waiting in the pool, so the first requests don't pay
+     * for opening them
+     *
+     * @throws SQLException if a connection can't be opened
+     */
+    public void warmUp() throws SQLException {
+        // Never opens more than maxSize in all, counting the borrowed ones
+        while (!closed && idle.size() < config.minIdle() && reserve()) {
+            PooledConnection pooled = open();
+            pooled.lastUsed = System.currentTimeMillis();
+            idle.offerLast(pooled);
+        }
+    }
+
+    /**
+     * Takes a connection from the pool, opening one if none are idle. Closing the connection
+     * returns it to the pool.
+     *
+     * @return a connection with auto-commit on
+     * @throws SQLException if no connection frees up in time or a new one can't be opened
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) { throw new SQLException("Connection pool is closed"); }
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(config.connectionTimeoutMillis());
+        try {
+            if (!permits.tryAcquire(config.connectionTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = takeIdle()) == null && !reserve()) {
+                // The last connection allowed is being opened by warmUp, and lands in the pool shortly
+                if (System.nanoTime() - deadline > 0) { throw new SQLException("Timed out waiting for a database connection"); }
+                LockSupport.parkNanos(1_000_000);
+            }
+            if (pooled == null) { pooled = open(); }
+
+            long waited = System.nanoTime() - start;
+            borrows.incrementAndGet();
+            totalWaitNanos.addAndGet(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+            active.incrementAndGet();
+
+            return pooled.handOut();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * @return a snapshot of the pool's counters
+     */
+    public Metrics metrics() {
+        return new Metrics(active.get(), idle.size(), borrows.get(), totalWaitNanos.get(), maxWaitNanos.get(),
+                statementCacheHits.get(), statementCacheMisses.get());
+    }
+
+    /**
+     * Closes every idle connection and stops handing out new ones. Borrowed connections are
+     * closed as they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        evictor.shutdownNow();
+
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) { pooled.closePhysical(); }
+    }
+
+    /**
+     * Claims room for one more physical connection
+     *
+     * @return false if maxSize are already open or being opened
+     */
+    private boolean reserve() {
+        int count;
+        do {
+            count = opened.get();
+            if (count >= config.maxSize()) { return false; }
+        } while (!opened.compareAndSet(count, count + 1));
+        return true;
+    }
+
+    /**
+     * Opens the physical connection that reserve made room for
+     */
+    private PooledConnection open() throws SQLException {
+        try {
+            return new PooledConnection(factory.open());
+        } catch (SQLException | RuntimeException e) {
+            opened.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the most recently used idle connection that still works, or null if there is none
+     */
+    private PooledConnection takeIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (System.currentTimeMillis() - pooled.lastUsed < config.validateAfterMillis() || pooled.isValid()) {
+                return pooled;
+            }
+            pooled.closePhysical();
+        }
+        return null;
+    }
+
+    private void giveBack(PooledConnection pooled, boolean healthy) {
+        active.decrementAndGet();
+
+        if (healthy && !closed) {
+            pooled.lastUsed = System.currentTimeMillis();
+            idle.offerFirst(pooled);
+        } else {
+            pooled.closePhysical();
+        }
+        permits.release();
+    }
+
+    private void maintain() {
+        evictIdle();
+        try {
+            warmUp();
+        } catch (SQLException | RuntimeException e) {
+            // The next run tries again, and borrowers open their own connections meanwhile
+        }
+    }
+
+    /**
+     * Closes connections that have been idle too long, oldest first, leaving at least minIdle
+     */
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+
+        while (idle.size() > config.minIdle()) {
+            PooledConnection oldest = idle.peekLast();
+            if (oldest == null || now - oldest.lastUsed < config.idleTimeoutMillis()) { return; }
+
+            if (idle.removeLastOccurrence(oldest)) { oldest.closePhysical(); }
+        }
+    }
+
+    /**
+     * A physical connection and its statement cache. Each borrow hands out a fresh proxy, so a
+     * connection closed twice (or used after closing) can't return to the pool twice.
+     */
+    private class PooledConnection {
+        private final Connection physical;
+        private final Map<String, CachedStatement> statements;
+        private final List<PreparedStatement> uncached = new ArrayList<>();
+        private volatile long lastUsed = System.currentTimeMillis();
+        private final AtomicBoolean physicalClosed = new AtomicBoolean();
+
+        // The proxy of the current borrow, which statements hand out as their connection
+        private volatile Connection connectionProxy;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+
+            // Least recently used statements are closed once the cache is full. One still open is
+            // left to its borrower and closed when the connection is returned, like an uncached one.
+            statements = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                    if (size() <= config.statementCacheSize()) { return false; }
+
+                    CachedStatement cached = eldest.getValue();
+                    if (cached.inUse) {
+                        uncached.add(cached.physical);
+                    } else {
+                        cached.closePhysical();
+                    }
+                    return true;
+                }
+            };
+        }
+
+        Connection handOut() {
+            Connection proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new ConnectionHandler(this));
+            connectionProxy = proxy;
+            return proxy;
+        }
+
+        /**
+         * Prepares a statement or reuses a cached one that isn't already open
+         */
+        PreparedStatement prepare(Method method, Object[] args) throws Throwable {
+            String key = cacheKey(args);
+            CachedStatement cached = key == null ? null : statements.get(key);
+
+            if (cached != null && !cached.inUse) {
+                statementCacheHits.incrementAndGet();
+                return cached.open();
+            }
+
+            statementCacheMisses.incrementAndGet();
+            PreparedStatement statement = (PreparedStatement) invoke(physical, method, args);
+
+            // A statement prepared while the cached one is open is just used once
+            if (key == null || cached != null) {
+                uncached.add(statement);
+                return onConnection(statement);
+            }
+
+            cached = new CachedStatement(statement, this);
+            statements.put(key, cached);
+            return cached.open();
+        }
+
+        boolean isValid() {
+            try {
+                return physical.isValid(1);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Puts the connection back the way borrow hands it out, including freeing any statements
+         * the borrower didn't close
+         */
+        boolean reset() {
+            for (CachedStatement cached : statements.values()) { cached.release(); }
+            for (PreparedStatement statement : uncached) { closeQuietly(statement); }
+            uncached.clear();
+
+            try {
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                return !physical.isClosed();
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Wraps a statement so its getConnection gives the borrower's proxy, not the pooled connection
+         */
+        PreparedStatement onConnection(PreparedStatement statement) {
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (proxy, method, args) ->
+                            method.getName().equals("getConnection") ? connectionProxy : ConnectionPool.invoke(statement, method, args));
+        }
+
+        void closePhysical() {
+            if (!physicalClosed.compareAndSet(false, true)) { return; }
+            opened.decrementAndGet();
+
+            for (CachedStatement cached : statements.values()) { cached.closePhysical(); }
+            statements.clear();
+            closeQuietly(physical);
+        }
+    }
+
+    /**
+     * Sends calls to the physical connection, except closing (which returns it to the pool)
+     * and preparing statements (which go through the cache)
+     */
+    private class ConnectionHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean returned;
+
+        ConnectionHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!returned) {
+                        returned = true;
+                        giveBack(pooled, pooled.reset());
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return returned || pooled.physical.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Pooled " + pooled.physical;
+                }
+                default -> { }
+            }
+
+            if (returned) { throw new SQLException("Connection has been returned to the pool"); }
+            if (method.getName().equals("prepareStatement")) { return pooled.prepare(method, args); }
+
+            return ConnectionPool.invoke(pooled.physical, method, args);
+        }
+    }
+
+    /**
+     * A prepared statement kept open between uses. Closing the handed out proxy clears its
+     * parameters and batch instead of closing it.
+     */
+    private static class CachedStatement implements InvocationHandler {
+        private final PreparedStatement physical;
+        private final PooledConnection owner;
+        private final PreparedStatement proxy;
+        private volatile boolean inUse;
+
+        CachedStatement(PreparedStatement physical, PooledConnection owner) {
+            this.physical = physical;
+            this.owner = owner;
+            proxy = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, this);
+        }
+
+        PreparedStatement open() {
+            inUse = true;
+            return proxy;
+        }
+
+        void release() {
+            if (!inUse) { return; }
+
+            inUse = false;
+            try {
+                physical.clearParameters();
+                physical.clearBatch();
+            } catch (SQLException e) {
+                // The next use sets every parameter again anyway
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    release();
+                    return null;
+                }
+                case "isClosed" -> {
+                    return !inUse || physical.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "getConnection" -> {
+                    return owner.connectionProxy;
+                }
+                default -> {
+                    return ConnectionPool.invoke(physical, method, args);
+                }
+            }
+        }
+
+        void closePhysical() {
+            closeQuietly(physical);
+        }
+    }
+
+    /**
+     * @return the cache key for prepareStatement's arguments, or null if they can't be cached
+     */
+    private static String cacheKey(Object[] args) {
+        if (args.length == 1) { return (String) args[0]; }
+        if (args.length == 2 && args[1] instanceof Integer keys) { return keys + ":" + args[0]; }
+        return null;
+    }
+
+    /**
+     * Closes a connection or statement that is being thrown away, ignoring any failure
+     */
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            // Nothing more can be done with it
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -8,6 +8,7 @@ public class DatabaseManager {
     private static String dbUsername;
     private static String dbPassword;
     private static String connectionUrl;
+    private static ConnectionPool pool;
 
     /*
      * Load the database information for the db.properties file.
@@ -27,12 +28,19 @@ public class DatabaseManager {
         } catch (SQLException ex) {
             throw new DataAccessException("failed to create database", ex);
         }
+
+        // Open the pool's idle connections now the database is there to connect to
+        try {
+            pool.warmUp();
+        } catch (SQLException ex) {
+            // Requests open their own connections instead, and the pool tops itself up later
+        }
     }
 
     /**
-     * Create a connection to the database and sets the catalog based upon the
-     * properties specified in db.properties. Connections to the database should
-     * be short-lived, and you must close the connection when you are done with it.
+     * Borrows a connection to the database from the pool, with the catalog set based upon the
+     * properties specified in db.properties. Connections to the database should be short-lived,
+     * and you must close the connection when you are done with it, which returns it to the pool.
      * The easiest way to do that is with a try-with-resource block.
      * <br/>
      * <code>
@@ -44,14 +52,25 @@ public class DatabaseManager {
     static Connection getConnection() throws DataAccessException {
         try {
             //do not wrap the following line with a try-with-resources
-            var conn = DriverManager.getConnection(connectionUrl, dbUsername, dbPassword);
-            conn.setCatalog(databaseName);
-            return conn;
+            return pool.borrow();
         } catch (SQLException ex) {
             throw new DataAccessException("failed to get connection", ex);
         }
     }
 
+    /**
+     * @return how busy the connection pool is and how long requests have waited for connections
+     */
+    public static ConnectionPool.Metrics poolMetrics() {
+        return pool.metrics();
+    }
+
+    private static Connection openConnection() throws SQLException {
+        var conn = DriverManager.getConnection(connectionUrl, dbUsername, dbPassword);
+        conn.setCatalog(databaseName);
+        return conn;
+    }
+
     private static void loadPropertiesFromResources() {
         try (var propStream = Thread.currentThread().getContextClassLoader().getResourceAsStream("db.properties")) {
             if (propStream == null) {
@@ -73,5 +92,16 @@ public class DatabaseManager {
         var host = props.getProperty("db.host");
         var port = Integer.parseInt(props.getProperty("db.port"));
         connectionUrl = String.format("jdbc:mysql://%s:%d", host, port);
+
+        // The pool settings are optional, anything left out uses the default
+        var defaults = ConnectionPool.Config.DEFAULT;
+        var config = new ConnectionPool.Config(
+                Integer.parseInt(props.getProperty("db.pool.minIdle", String.valueOf(defaults.minIdle()))),
+                Integer.parseInt(props.getProperty("db.pool.maxSize", String.valueOf(defaults.maxSize()))),
+                Long.parseLong(props.getProperty("db.pool.connectionTimeout", String.valueOf(defaults.connectionTimeoutMillis()))),
+                Long.parseLong(props.getProperty("db.pool.idleTimeout", String.valueOf(defaults.idleTimeoutMillis()))),
+                Long.parseLong(props.getProperty("db.pool.validateAfter", String.valueOf(defaults.validateAfterMillis()))),
+                Integer.parseInt(props.getProperty("db.pool.statementCacheSize", String.valueOf(defaults.statementCacheSize()))));
+        pool = new ConnectionPool(DatabaseManager::openConnection, config);
     }
 }
@@ -1,7 +1,9 @@
 package dataaccess;
 import model.GameData;
+import request.GameInfo;
 
 import java.util.ArrayList;
+import java.util.Collection;
 
 public interface GameDAO {
 
@@ -9,8 +11,35 @@ public interface GameDAO {
 
     public GameData getGame(int gameID) throws DataAccessException;
 
+    /**
+     * Reads many games in one go, skipping IDs with no game
+     */
+    public ArrayList<GameData> getGames(Collection<Integer> gameIDs) throws DataAccessException;
+
     public ArrayList<GameData> listGames() throws DataAccessException;
 
+    /**
+     * @return how many games there are, without reading them
+     */
+    public int countGames() throws DataAccessException;
+
+    /**
+     * Lists the names and players of the games matching the query, in order of ID, without reading their boards
+     */
+    public ArrayList<GameInfo> listGameInfo(GameQuery query) throws DataAccessException;
+
+    /**
+     * @return how many games match the query's filters, ignoring its cursor and limit
+     */
+    public int countGames(GameQuery query) throws DataAccessException;
+
+    /**
+     * Reserves a block of unused game IDs, which no later call hands out again until the games are cleared
+     *
+     * @return the first ID of the block; the block is this and the count - 1 IDs after it
+     */
+    public int reserveGameIDs(int count) throws DataAccessException;
+
     public void updateGame(int gameID, GameData newGameData) throws DataAccessException;
 
     public void clear() throws DataAccessException;
@@ -0,0 +1,65 @@
+package dataaccess;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out game IDs from blocks reserved from a GameDAO. IDs within a block are handed out with
+ * one atomic increment, and the DAO is only asked again when a block runs out, so creating a game
+ * never reads the game table and two creates never get the same ID.
+ * <p>
+ * IDs left in a block when the process stops are never used, so IDs can have gaps.
+ */
+public class GameIdAllocator {
+
+    private record Block(AtomicInteger next, int end) { }
+
+    private final GameDAO gameDAO;
+    private final int blockSize;
+
+    // A lock rather than a monitor, so a virtual thread waiting on the DAO doesn't pin its carrier
+    private final ReentrantLock reserving = new ReentrantLock();
+    private volatile Block block = new Block(new AtomicInteger(), 0);
+
+    /**
+     * @param gameDAO where blocks of IDs are reserved
+     * @param blockSize how many IDs to reserve at a time
+     */
+    public GameIdAllocator(GameDAO gameDAO, int blockSize) {
+        this.gameDAO = gameDAO;
+        this.blockSize = blockSize;
+    }
+
+    public int nextGameID() throws DataAccessException {
+        while (true) {
+            Block current = block;
+            int gameID = current.next().getAndIncrement();
+            if (gameID < current.end()) { return gameID; }
+
+            // Only one thread reserves the next block; the others wait for it and try again
+            reserving.lock();
+            try {
+                if (block == current) { block = reserve(); }
+            } finally {
+                reserving.unlock();
+            }
+        }
+    }
+
+    /**
+     * Drops the rest of the current block, e.g. after the games were cleared and IDs start over
+     */
+    public void reset() {
+        reserving.lock();
+        try {
+            block = new Block(new AtomicInteger(), 0);
+        } finally {
+            reserving.unlock();
+        }
+    }
+
+    private Block reserve() throws DataAccessException {
+        int first = gameDAO.reserveGameIDs(blockSize);
+        return new Block(new AtomicInteger(first), first + blockSize);
+    }
+}
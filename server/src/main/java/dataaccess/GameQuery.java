@@ -0,0 +1,36 @@
+package dataaccess;
+
+import model.GameData;
+
+/**
+ * Which games to list, and how many. Any filter left null matches every game.
+ *
+ * @param afterGameID only games with a greater ID
+ * @param limit the most games to list
+ * @param player only games this user plays in
+ * @param open only games with (true) or without (false) an empty seat
+ * @param finished only finished (true) or ongoing (false) games
+ */
+public record GameQuery(Integer afterGameID, int limit, String player, Boolean open, Boolean finished) {
+
+    /**
+     * Checks a game against the filters, for DAOs that don't filter in a query
+     */
+    public boolean matches(GameData game) {
+        if (afterGameID != null && game.gameID() <= afterGameID) { return false; }
+        if (player != null && !player.equals(game.whiteUsername()) && !player.equals(game.blackUsername())) { return false; }
+        if (open != null && open != (game.whiteUsername() == null || game.blackUsername() == null)) { return false; }
+        return finished == null || finished == isFinished(game);
+    }
+
+    /**
+     * @return the same filters without the cursor or limit, e.g. for counting every match
+     */
+    public GameQuery unpaged() {
+        return new GameQuery(null, Integer.MAX_VALUE, player, open, finished);
+    }
+
+    public static boolean isFinished(GameData game) {
+        return game.game() != null && game.game().isFinished();
+    }
+}
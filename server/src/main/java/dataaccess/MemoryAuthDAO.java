@@ -1,51 +1,38 @@
 package dataaccess;
 
 import model.AuthData;
-import model.UserData;
 
-import java.util.ArrayList;
-import java.util.Objects;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class MemoryAuthDAO implements AuthDAO {
 
-    private ArrayList<AuthData> auths = new ArrayList<>();
+    // Keyed by token, so lookups don't scan other sessions and never lock
+    private final Map<String, AuthData> auths = new ConcurrentHashMap<>();
 
     public void createAuth(AuthData authData) throws DataAccessException {
-        auths.add(authData);
+        if (authData.authToken() == null) {
+            throw new DataAccessException("Error: bad request");
+        }
+
+        auths.put(authData.authToken(), authData);
     }
 
     public AuthData getAuth(String authToken) throws DataAccessException {
-        // Find the AuthData from the authToken
-        for (int i = 0; i < auths.size(); ++i) {
-            if (Objects.equals(auths.get(i).authToken(), authToken)) {
-                return auths.get(i);
-            }
-        }
-
-        return null;
+        return authToken == null ? null : auths.get(authToken);
     }
 
     public void deleteAuth(AuthData authData) throws DataAccessException  {
-        // Remove all data that match the authToken
-        for (int i = auths.size() - 1; i >= 0; --i) {
-            if (Objects.equals(auths.get(i).authToken(), authData.authToken())) {
-                auths.remove(i);
-            }
-        }
+        if (authData.authToken() != null) { auths.remove(authData.authToken()); }
     }
 
     public String getUsername(String authToken) throws DataAccessException {
-        for (int i = 0; i < auths.size(); ++i) {
-            if (Objects.equals(auths.get(i).authToken(), authToken)) {
-                return auths.get(i).username();
-            }
-        }
-
-        return null;
+        AuthData authData = getAuth(authToken);
+        return authData == null ? null : authData.username();
     }
 
     public void clear() {
-        auths = new ArrayList<>();
+        auths.clear();
     }
 
 }
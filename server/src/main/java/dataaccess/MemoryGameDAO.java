@@ -1,41 +1,177 @@
 package dataaccess;
 
 import model.GameData;
+import request.GameInfo;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Keeps games in a concurrent map by ID, with their IDs in order beside it, so lookups and pages of
+ * a listing never scan other games, and reads never lock. Each player's games are indexed too, for
+ * listings by player.
+ * <p>
+ * Changes to one game are made under that game's entry in the map, so the index always ends up
+ * matching the game; a listing running at the same time may see either side of a change.
+ */
 public class MemoryGameDAO implements GameDAO {
 
-    private ArrayList<GameData> games = new ArrayList<>();
+    private final Map<Integer, GameData> games = new ConcurrentHashMap<>();
+    private final NavigableSet<Integer> gameIDs = new ConcurrentSkipListSet<>();
+    private final Map<String, NavigableSet<Integer>> gamesByPlayer = new ConcurrentHashMap<>();
+    private final AtomicInteger nextGameID = new AtomicInteger(1);
 
     public void createGame(GameData gameData) throws DataAccessException {
-        games.add(gameData);
+        boolean[] created = new boolean[1];
+
+        games.computeIfAbsent(gameData.gameID(), id -> {
+            gameIDs.add(id);
+            index(id, null, gameData);
+            created[0] = true;
+            return gameData;
+        });
+
+        if (!created[0]) {
+            throw new DataAccessException("Error: game already exists");
+        }
     }
 
     public GameData getGame(int gameID) throws DataAccessException {
-        for (int i = 0; i < games.size(); ++i) {
-            if (games.get(i).gameID() == gameID) {
-                return games.get(i);
-            }
+        return games.get(gameID);
+    }
+
+    public ArrayList<GameData> getGames(Collection<Integer> gameIDs) throws DataAccessException {
+        ArrayList<GameData> found = new ArrayList<>();
+
+        for (int gameID : gameIDs) {
+            GameData game = games.get(gameID);
+            if (game != null) { found.add(game); }
         }
 
-        return null;
+        return found;
     }
 
     public ArrayList<GameData> listGames() throws DataAccessException {
-        return games;
+        ArrayList<GameData> found = new ArrayList<>();
+
+        for (int gameID : gameIDs) {
+            GameData game = games.get(gameID);
+            if (game != null) { found.add(game); }
+        }
+
+        return found;
     }
 
-    public void updateGame(int gameID, GameData newGameData) throws DataAccessException {
-        for (int i = 0; i < games.size(); ++i) {
-            if (games.get(i).gameID() == gameID) {
-                games.set(i, newGameData);
+    public int countGames() throws DataAccessException {
+        return games.size();
+    }
+
+    public ArrayList<GameInfo> listGameInfo(GameQuery query) throws DataAccessException {
+        ArrayList<GameInfo> found = new ArrayList<>();
+
+        for (int gameID : candidates(query)) {
+            if (found.size() >= query.limit()) { break; }
+
+            // The index can be a step behind a change, so check the game itself
+            GameData game = games.get(gameID);
+            if (game != null && query.matches(game)) {
+                found.add(new GameInfo(game.gameID(), game.whiteUsername(), game.blackUsername(), game.gameName(),
+                        GameQuery.isFinished(game)));
             }
         }
+
+        return found;
+    }
+
+    public int countGames(GameQuery query) throws DataAccessException {
+        GameQuery filters = query.unpaged();
+        int count = 0;
+
+        for (int gameID : candidates(filters)) {
+            GameData game = games.get(gameID);
+            if (game != null && filters.matches(game)) { ++count; }
+        }
+
+        return count;
+    }
+
+    /**
+     * @return the IDs of the games that could match the query, in order, from its cursor on
+     */
+    private NavigableSet<Integer> candidates(GameQuery query) {
+        NavigableSet<Integer> ids = query.player() == null ? gameIDs
+                : gamesByPlayer.getOrDefault(query.player(), new ConcurrentSkipListSet<>());
+
+        return query.afterGameID() == null ? ids : ids.tailSet(query.afterGameID(), false);
+    }
+
+    public int reserveGameIDs(int count) throws DataAccessException {
+        return nextGameID.getAndAdd(count);
+    }
+
+    public void updateGame(int gameID, GameData newGameData) throws DataAccessException {
+        if (gameID != newGameData.gameID()) {
+            boolean[] removed = new boolean[1];
+            games.computeIfPresent(gameID, (id, old) -> {
+                gameIDs.remove(id);
+                index(id, old, null);
+                removed[0] = true;
+                return null;
+            });
+            if (!removed[0]) { return; }
+
+            games.compute(newGameData.gameID(), (id, replaced) -> {
+                gameIDs.add(id);
+                index(id, replaced, newGameData);
+                return newGameData;
+            });
+            return;
+        }
+
+        games.computeIfPresent(gameID, (id, old) -> {
+            index(id, old, newGameData);
+            return newGameData;
+        });
+    }
+
+    /**
+     * Moves a game's entries in the player index from its old players to its new ones
+     */
+    private void index(int gameID, GameData old, GameData game) {
+        if (old != null) {
+            unindex(gameID, old.whiteUsername(), game);
+            unindex(gameID, old.blackUsername(), game);
+        }
+        if (game != null) {
+            index(gameID, game.whiteUsername());
+            index(gameID, game.blackUsername());
+        }
+    }
+
+    private void index(int gameID, String player) {
+        if (player == null) { return; }
+
+        gamesByPlayer.computeIfAbsent(player, p -> new ConcurrentSkipListSet<>()).add(gameID);
+    }
+
+    private void unindex(int gameID, String player, GameData game) {
+        if (player == null) { return; }
+        if (game != null && (player.equals(game.whiteUsername()) || player.equals(game.blackUsername()))) { return; }
+
+        NavigableSet<Integer> ids = gamesByPlayer.get(player);
+        if (ids != null) { ids.remove(gameID); }
     }
 
     public void clear() {
-        games = new ArrayList<>();
+        games.clear();
+        gameIDs.clear();
+        gamesByPlayer.clear();
+        nextGameID.set(1);
     }
 
 }
@@ -2,29 +2,30 @@ package dataaccess;
 
 import model.UserData;
 
-import java.util.ArrayList;
-import java.util.Objects;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class MemoryUserDAO implements UserDAO {
 
-    private ArrayList<UserData> users = new ArrayList<>();
+    // Keyed by username, so lookups don't scan other users and never lock
+    private final Map<String, UserData> users = new ConcurrentHashMap<>();
 
     public void createUser(UserData userData) throws DataAccessException {
-        users.add(userData);
-    }
+        if (userData.username() == null) {
+            throw new DataAccessException("Error: bad request");
+        }
 
-    public UserData getUser(String username) throws DataAccessException {
-        // Find the UserData from the username
-        for (int i = 0; i < users.size(); ++i) {
-            if (Objects.equals(users.get(i).username(), username)) {
-                return users.get(i);
-            }
+        // Two registrations of the same name at once can't both succeed, as with the database's key
+        if (users.putIfAbsent(userData.username(), userData) != null) {
+            throw new DataAccessException("Error: already taken");
         }
+    }
 
-        return null;
+    public UserData getUser(String username) throws DataAccessException {
+        return username == null ? null : users.get(username);
     }
 
     public void clear() {
-        users = new ArrayList<>();
+        users.clear();
     }
 }
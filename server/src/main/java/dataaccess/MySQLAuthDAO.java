@@ -23,11 +23,12 @@ public class MySQLAuthDAO implements AuthDAO {
 
     public AuthData getAuth(String authToken) throws DataAccessException {
         try (var conn = DatabaseManager.getConnection()) {
-            var statement = "SELECT authToken, username FROM auth";
-            var ps = conn.prepareStatement(statement);
-            try (var rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    if (Objects.equals(rs.getString("authToken"), authToken)) {
+            var statement = "SELECT authToken, username FROM auth WHERE authToken = ?";
+            try (var ps = conn.prepareStatement(statement)) {
+                ps.setString(1, authToken);
+                try (var rs = ps.executeQuery()) {
+                    // The key's collation ignores case, so make sure the match is exact
+                    if (rs.next() && Objects.equals(rs.getString("authToken"), authToken)) {
                         return new AuthData(rs.getString("authToken"), rs.getString("username"));
                     }
                 }
@@ -47,11 +48,12 @@ public class MySQLAuthDAO implements AuthDAO {
 
     public String getUsername(String authToken) throws DataAccessException {
         try (var conn = DatabaseManager.getConnection()) {
-            var statement = "SELECT authToken, username FROM auth";
-            var ps = conn.prepareStatement(statement);
-            try (var rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    if (Objects.equals(rs.getString("authToken"), authToken)) {
+            var statement = "SELECT authToken, username FROM auth WHERE authToken = ?";
+            try (var ps = conn.prepareStatement(statement)) {
+                ps.setString(1, authToken);
+                try (var rs = ps.executeQuery()) {
+                    // The key's collation ignores case, so make sure the match is exact
+                    if (rs.next() && Objects.equals(rs.getString("authToken"), authToken)) {
                         return rs.getString("username");
                     }
                 }
@@ -1,59 +1,181 @@
 package dataaccess;
 
 import chess.ChessGame;
+import chess.ChessMove;
+import chess.GameCodec;
+import chess.PackedMove;
 import com.google.gson.Gson;
 import model.GameData;
+import request.GameInfo;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.LinkedHashMap;
 import java.util.Objects;
 
+/**
+ * Stores games as a snapshot in the game table plus a log of moves in the moves table. Each move
+ * only appends a row of a few bytes; the snapshot is rewritten every SNAPSHOT_INTERVAL moves, and
+ * whenever the game changes without a move (e.g. resigning). Games are rebuilt from their snapshot
+ * by replaying the logged moves made after it.
+ * <p>
+ * The DAO remembers the names and logged moves of each game it has written or read, so logging a
+ * move is one insert, without reading the game back or rewriting unchanged names. Games are only
+ * read back when the DAO hasn't seen them, so each game should be written by one server at a time.
+ * <p>
+ * Listings read only the name, player and finished columns, a page at a time by ID, so they cost the
+ * same however many games there are.
+ */
 public class MySQLGameDAO implements GameDAO {
 
+    // How many moves can be logged after a snapshot before it is rewritten
+    private static final int SNAPSHOT_INTERVAL = 32;
+
+    // MySQL's error for adding a column that is already there
+    private static final int DUPLICATE_COLUMN = 1060;
+
+    // Set once the game table is known to have the finished column, so later DAOs skip the check
+    private static volatile boolean finishedColumnChecked = false;
+
+    /**
+     * What the database holds for a game, as of this DAO's last read or write of it
+     */
+    private record Stored(String whiteUsername, String blackUsername, String gameName, List<ChessMove> moves) { }
+
+    // How many games' stored state to remember, dropping the least recently used
+    private static final int MAX_STORED = 10_000;
+
+    private final Map<Integer, Stored> stored = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Stored> eldest) {
+            return size() > MAX_STORED;
+        }
+    });
+
     DataConnector connector = new DataConnector();
 
     public MySQLGameDAO() throws DataAccessException {
         connector.configureDatabase(createStatements);
+        addFinishedColumn();
+    }
+
+    /**
+     * Adds the finished column to game tables made before it existed. Their games count as ongoing
+     * until their next snapshot is written. This runs once per process, and only alters the table
+     * when the column is missing.
+     */
+    private static synchronized void addFinishedColumn() throws DataAccessException {
+        if (finishedColumnChecked) { return; }
+
+        var query = "SELECT COUNT(*) FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'game' AND COLUMN_NAME = 'finished'";
+        var statement = "ALTER TABLE game ADD COLUMN `finished` boolean NOT NULL DEFAULT FALSE, ADD INDEX(finished)";
+
+        try (var conn = DatabaseManager.getConnection()) {
+            boolean exists;
+            try (var ps = conn.prepareStatement(query); var rs = ps.executeQuery()) {
+                exists = rs.next() && rs.getInt(1) > 0;
+            }
+
+            if (!exists) {
+                try (var ps = conn.prepareStatement(statement)) {
+                    ps.executeUpdate();
+                } catch (SQLException e) {
+                    // Another server may have added it since the check
+                    if (e.getErrorCode() != DUPLICATE_COLUMN) { throw e; }
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(String.format("Error: Unable to configure database: %s", e.getMessage()));
+        }
+
+        finishedColumnChecked = true;
     }
 
     public void createGame(GameData gameData) throws DataAccessException {
-        var statement = "INSERT INTO game (gameID, gameName, whiteUsername, blackUsername, game) VALUES (?, ?, ?, ?, ?)";
+        var statement = "INSERT INTO game (gameID, gameName, whiteUsername, blackUsername, game, finished) VALUES (?, ?, ?, ?, ?, ?)";
 
-        var json = new Gson().toJson(gameData.game(), ChessGame.class);
+        // Snapshots carry the game's history, since the log is replayed on top of it
+        var encoded = GameCodec.encodeToString(gameData.game(), true);
 
-        var id = connector.executeUpdate(statement, gameData.gameID(), gameData.gameName(), gameData.whiteUsername(), gameData.blackUsername(), json);
+        try (var conn = DatabaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try (var ps = conn.prepareStatement(statement)) {
+                ps.setInt(1, gameData.gameID());
+                ps.setString(2, gameData.gameName());
+                ps.setString(3, gameData.whiteUsername());
+                ps.setString(4, gameData.blackUsername());
+                ps.setString(5, encoded);
+                ps.setBoolean(6, GameQuery.isFinished(gameData));
+                ps.executeUpdate();
+            }
+
+            // Log any moves the game starts with, so the log is complete from the first move
+            List<ChessMove> moves = gameData.game() == null ? List.of() : gameData.game().getMoveHistory();
+            insertMoves(conn, gameData.gameID(), moves, 0);
+            conn.commit();
+
+            stored.put(gameData.gameID(), new Stored(gameData.whiteUsername(), gameData.blackUsername(), gameData.gameName(), moves));
+        } catch (SQLException e) {
+            throw new DataAccessException(String.format("Error: unable to update database: %s, %s", statement, e.getMessage()));
+        }
     }
 
     public GameData getGame(int gameID) throws DataAccessException {
+        List<GameData> games = getGames(List.of(gameID));
+        return games.isEmpty() ? null : games.get(0);
+    }
+
+    public ArrayList<GameData> getGames(Collection<Integer> gameIDs) throws DataAccessException {
+        if (gameIDs.isEmpty()) { return new ArrayList<>(); }
+
         try (var conn = DatabaseManager.getConnection()) {
-            var statement = "SELECT gameID, gameName, whiteUsername, blackUsername, game FROM game";
-            var ps = conn.prepareStatement(statement);
-            try (var rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    if (Objects.equals(rs.getInt("gameID"), gameID)) {
-                        return new GameData(rs.getInt("gameID"), rs.getString("whiteUsername"),
-                                rs.getString("blackUsername"), rs.getString("gameName"),
-                                new Gson().fromJson(rs.getString("game"), ChessGame.class));
-                    }
+            return readGames(conn, gameIDs);
+        } catch (Exception e) {
+            throw new DataAccessException(String.format("Error: Unable to read data: %s", e.getMessage()));
+        }
+    }
+
+    public ArrayList<GameData> listGames() throws DataAccessException {
+        try (var conn = DatabaseManager.getConnection()) {
+            return readGames(conn, null);
+        } catch (Exception e) {
+            throw new DataAccessException(String.format("Error: Unable to read data: %s", e.getMessage()));
+        }
+    }
+
+    public int countGames() throws DataAccessException {
+        try (var conn = DatabaseManager.getConnection()) {
+            try (var ps = conn.prepareStatement("SELECT COUNT(*) FROM game")) {
+                try (var rs = ps.executeQuery()) {
+                    return rs.next() ? rs.getInt(1) : 0;
                 }
             }
         } catch (Exception e) {
             throw new DataAccessException(String.format("Error: Unable to read data: %s", e.getMessage()));
         }
-
-        return null;
     }
 
-    public ArrayList<GameData> listGames() throws DataAccessException {
-        ArrayList<GameData> infos = new ArrayList<>();
+    public ArrayList<GameInfo> listGameInfo(GameQuery query) throws DataAccessException {
+        List<Object> params = new ArrayList<>();
+        var statement = "SELECT gameID, gameName, whiteUsername, blackUsername, finished FROM game" +
+                where(query, params) + " ORDER BY gameID LIMIT ?";
+        params.add(query.limit());
 
+        ArrayList<GameInfo> infos = new ArrayList<>();
         try (var conn = DatabaseManager.getConnection()) {
-            var statement = "SELECT gameID, gameName, whiteUsername, blackUsername, game FROM game";
             try (var ps = conn.prepareStatement(statement)) {
+                setParams(ps, params);
                 try (var rs = ps.executeQuery()) {
                     while (rs.next()) {
-                        infos.add(new GameData(rs.getInt("gameID"), rs.getString("whiteUsername"),
-                                rs.getString("blackUsername"), rs.getString("gameName"),
-                                new Gson().fromJson(rs.getString("game"), ChessGame.class)));
+                        infos.add(new GameInfo(rs.getInt("gameID"), rs.getString("whiteUsername"),
+                                rs.getString("blackUsername"), rs.getString("gameName"), rs.getBoolean("finished")));
                     }
                 }
             }
@@ -64,18 +186,301 @@ public class MySQLGameDAO implements GameDAO {
         return infos;
     }
 
+    public int countGames(GameQuery query) throws DataAccessException {
+        List<Object> params = new ArrayList<>();
+        var statement = "SELECT COUNT(*) FROM game" + where(query.unpaged(), params);
+
+        try (var conn = DatabaseManager.getConnection()) {
+            try (var ps = conn.prepareStatement(statement)) {
+                setParams(ps, params);
+                try (var rs = ps.executeQuery()) {
+                    return rs.next() ? rs.getInt(1) : 0;
+                }
+            }
+        } catch (Exception e) {
+            throw new DataAccessException(String.format("Error: Unable to read data: %s", e.getMessage()));
+        }
+    }
+
+    /**
+     * Builds the WHERE clause for a query's filters, adding the values it needs to params
+     */
+    private static String where(GameQuery query, List<Object> params) {
+        List<String> conditions = new ArrayList<>();
+
+        if (query.afterGameID() != null) {
+            conditions.add("gameID > ?");
+            params.add(query.afterGameID());
+        }
+        if (query.player() != null) {
+            conditions.add("(whiteUsername = ? OR blackUsername = ?)");
+            params.add(query.player());
+            params.add(query.player());
+        }
+        if (query.open() != null) {
+            conditions.add(query.open() ? "(whiteUsername IS NULL OR blackUsername IS NULL)"
+                    : "(whiteUsername IS NOT NULL AND blackUsername IS NOT NULL)");
+        }
+        if (query.finished() != null) {
+            conditions.add("finished = ?");
+            params.add(query.finished());
+        }
+
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    private static void setParams(PreparedStatement ps, List<Object> params) throws SQLException {
+        for (int i = 0; i < params.size(); ++i) {
+            ps.setObject(i + 1, params.get(i));
+        }
+    }
+
+    /**
+     * Reads games by their primary key, and brings their snapshots up to date with one more query of the log
+     *
+     * @param gameIDs the games to read, or null to read every game
+     * @return the games that exist, in order of ID
+     */
+    private ArrayList<GameData> readGames(Connection conn, Collection<Integer> gameIDs) throws SQLException {
+        ArrayList<GameData> infos = new ArrayList<>();
+        String where = gameIDs == null ? "" : " WHERE gameID IN (" + String.join(", ", Collections.nCopies(gameIDs.size(), "?")) + ")";
+
+        var statement = "SELECT gameID, gameName, whiteUsername, blackUsername, game FROM game" + where + " ORDER BY gameID";
+        try (var ps = conn.prepareStatement(statement)) {
+            setGameIDs(ps, gameIDs);
+            try (var rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    infos.add(new GameData(rs.getInt("gameID"), rs.getString("whiteUsername"),
+                            rs.getString("blackUsername"), rs.getString("gameName"),
+                            readGame(rs.getString("game"))));
+                }
+            }
+        }
+        if (infos.isEmpty()) { return infos; }
+
+        Map<Integer, List<Integer>> moves = new HashMap<>();
+        try (var ps = conn.prepareStatement("SELECT gameID, move FROM moves" + where + " ORDER BY gameID, ply")) {
+            setGameIDs(ps, gameIDs);
+            try (var rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    moves.computeIfAbsent(rs.getInt("gameID"), id -> new ArrayList<>()).add((int) rs.getShort("move"));
+                }
+            }
+        }
+
+        for (GameData info : infos) {
+            List<Integer> logged = moves.getOrDefault(info.gameID(), List.of());
+            if (info.game() != null && logged.size() > info.game().getPlyCount()) {
+                replayMoves(info.game(), logged.subList(info.game().getPlyCount(), logged.size()));
+            }
+
+            // An update that committed since this read has already remembered something newer
+            stored.putIfAbsent(info.gameID(), new Stored(info.whiteUsername(), info.blackUsername(), info.gameName(), toMoves(logged)));
+        }
+
+        return infos;
+    }
+
+    private static void setGameIDs(PreparedStatement ps, Collection<Integer> gameIDs) throws SQLException {
+        if (gameIDs == null) { return; }
+
+        int index = 1;
+        for (int gameID : gameIDs) {
+            ps.setInt(index++, gameID);
+        }
+    }
+
+    /**
+     * Moves the game_ids counter on by count in one statement, so servers sharing the database never
+     * reserve the same IDs. LAST_INSERT_ID(expr) hands the new value back on this connection only.
+     */
+    public int reserveGameIDs(int count) throws DataAccessException {
+        try (var conn = DatabaseManager.getConnection()) {
+            try (var ps = conn.prepareStatement("UPDATE game_ids SET next = LAST_INSERT_ID(next + ?) WHERE id = 1")) {
+                ps.setInt(1, count);
+                ps.executeUpdate();
+            }
+            try (var ps = conn.prepareStatement("SELECT LAST_INSERT_ID()")) {
+                try (var rs = ps.executeQuery()) {
+                    rs.next();
+                    return rs.getInt(1) - count;
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(String.format("Error: unable to update database: %s", e.getMessage()));
+        }
+    }
+
     public void updateGame(int gameID, GameData newGameData) throws DataAccessException {
-        var statement = "UPDATE game SET gameID = ?, whiteUsername = ?, blackUsername = ?, gameName = ?, game = ? WHERE gameID = ?";
+        var statement = "UPDATE game SET gameID = ?, whiteUsername = ?, blackUsername = ?, gameName = ? WHERE gameID = ?";
+        ChessGame game = newGameData.game();
+        int newGameID = newGameData.gameID();
+
+        try (var conn = DatabaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+
+            Stored before = stored.get(gameID);
+            if (before == null && (before = readStored(conn, gameID)) == null) {
+                throw new DataAccessException("Error: game not found");
+            }
 
-        var json = new Gson().toJson(newGameData.game(), ChessGame.class);
+            // When only a move was made, the game row is left alone
+            if (newGameID != gameID || !Objects.equals(before.whiteUsername(), newGameData.whiteUsername()) ||
+                    !Objects.equals(before.blackUsername(), newGameData.blackUsername()) ||
+                    !Objects.equals(before.gameName(), newGameData.gameName())) {
+                try (var ps = conn.prepareStatement(statement)) {
+                    ps.setInt(1, newGameID);
+                    ps.setString(2, newGameData.whiteUsername());
+                    ps.setString(3, newGameData.blackUsername());
+                    ps.setString(4, newGameData.gameName());
+                    ps.setInt(5, gameID);
+                    ps.executeUpdate();
+                }
+            }
 
-        connector.executeUpdate(statement, newGameData.gameID(), newGameData.whiteUsername(), newGameData.blackUsername(),
-                newGameData.gameName(), json, gameID);
+            // A renumbered game keeps its logged moves, rather than logging them again under the new ID
+            if (newGameID != gameID) {
+                try (var ps = conn.prepareStatement("UPDATE moves SET gameID = ? WHERE gameID = ?")) {
+                    ps.setInt(1, newGameID);
+                    ps.setInt(2, gameID);
+                    ps.executeUpdate();
+                }
+            }
+
+            List<ChessMove> moves = before.moves();
+            if (game == null) {
+                writeSnapshot(conn, newGameID, null);
+            } else {
+                moves = game.getMoveHistory();
+                int logged = before.moves().size();
+                int kept = commonPrefix(before.moves(), moves);
+
+                // Moves taken back, or replaced by others, are dropped from the log
+                if (kept < logged) {
+                    try (var ps = conn.prepareStatement("DELETE FROM moves WHERE gameID = ? AND ply >= ?")) {
+                        ps.setInt(1, newGameID);
+                        ps.setInt(2, kept);
+                        ps.executeUpdate();
+                    }
+                }
+                insertMoves(conn, newGameID, moves, kept);
+
+                // Anything that changed other than a new move (like finishing the game) needs a new snapshot
+                int plies = moves.size();
+                if (kept < logged || plies == logged || game.isFinished() || plies / SNAPSHOT_INTERVAL != logged / SNAPSHOT_INTERVAL) {
+                    writeSnapshot(conn, newGameID, game);
+                }
+            }
+
+            conn.commit();
+
+            stored.remove(gameID);
+            stored.put(newGameID, new Stored(newGameData.whiteUsername(), newGameData.blackUsername(), newGameData.gameName(), moves));
+        } catch (SQLException e) {
+            // The transaction was rolled back, so what was remembered may be out of date
+            stored.remove(gameID);
+            stored.remove(newGameID);
+            throw new DataAccessException(String.format("Error: unable to update database: %s, %s", statement, e.getMessage()));
+        }
+    }
+
+    private void writeSnapshot(Connection conn, int gameID, ChessGame game) throws SQLException {
+        try (var ps = conn.prepareStatement("UPDATE game SET game = ?, finished = ? WHERE gameID = ?")) {
+            ps.setString(1, game == null ? null : GameCodec.encodeToString(game, true));
+            ps.setBoolean(2, game != null && game.isFinished());
+            ps.setInt(3, gameID);
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Reads the names and logged moves of a game this DAO hasn't seen yet
+     *
+     * @return what is stored for the game, or null if there is no such game
+     */
+    private Stored readStored(Connection conn, int gameID) throws SQLException {
+        String whiteUsername;
+        String blackUsername;
+        String gameName;
+        try (var ps = conn.prepareStatement("SELECT whiteUsername, blackUsername, gameName FROM game WHERE gameID = ?")) {
+            ps.setInt(1, gameID);
+            try (var rs = ps.executeQuery()) {
+                if (!rs.next()) { return null; }
+                whiteUsername = rs.getString("whiteUsername");
+                blackUsername = rs.getString("blackUsername");
+                gameName = rs.getString("gameName");
+            }
+        }
+
+        List<Integer> logged = new ArrayList<>();
+        try (var ps = conn.prepareStatement("SELECT move FROM moves WHERE gameID = ? ORDER BY ply")) {
+            ps.setInt(1, gameID);
+            try (var rs = ps.executeQuery()) {
+                while (rs.next()) { logged.add((int) rs.getShort("move")); }
+            }
+        }
+
+        return new Stored(whiteUsername, blackUsername, gameName, toMoves(logged));
+    }
+
+    /**
+     * @return how many moves at the start of both lists are the same
+     */
+    private static int commonPrefix(List<ChessMove> a, List<ChessMove> b) {
+        int length = Math.min(a.size(), b.size());
+        for (int i = 0; i < length; ++i) {
+            if (!a.get(i).equals(b.get(i))) { return i; }
+        }
+        return length;
+    }
+
+    private static List<ChessMove> toMoves(List<Integer> packed) {
+        List<ChessMove> moves = new ArrayList<>(packed.size());
+        for (int move : packed) { moves.add(PackedMove.toChessMove(move)); }
+        return moves;
+    }
+
+    /**
+     * Appends the moves from the given ply on to the log in one batch
+     */
+    private void insertMoves(Connection conn, int gameID, List<ChessMove> moves, int fromPly) throws SQLException {
+        if (fromPly >= moves.size()) { return; }
+
+        try (var ps = conn.prepareStatement("INSERT INTO moves (gameID, ply, move) VALUES (?, ?, ?)")) {
+            for (int ply = fromPly; ply < moves.size(); ++ply) {
+                ps.setInt(1, gameID);
+                ps.setInt(2, ply);
+                ps.setShort(3, (short) PackedMove.of(moves.get(ply)));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /**
+     * Makes logged moves in a game rebuilt from its snapshot
+     */
+    private void replayMoves(ChessGame game, List<Integer> moves) {
+        for (int move : moves) {
+            game.applyMove(PackedMove.toChessMove(move));
+        }
+    }
+
+    /**
+     * Reads a stored game, which is Base64 of its binary encoding, or JSON for games stored before the encoding
+     */
+    private ChessGame readGame(String stored) {
+        if (stored == null) { return null; }
+        if (stored.startsWith("{")) { return new Gson().fromJson(stored, ChessGame.class); }
+
+        return GameCodec.decodeString(stored);
     }
 
     public void clear() throws DataAccessException {
-        var statement = "TRUNCATE game";
-        connector.executeUpdate(statement);
+        stored.clear();
+        connector.executeUpdate("TRUNCATE moves");
+        connector.executeUpdate("TRUNCATE game");
+        connector.executeUpdate("UPDATE game_ids SET next = 1 WHERE id = 1");
     }
 
     private final String[] createStatements = {
@@ -86,11 +491,32 @@ public class MySQLGameDAO implements GameDAO {
               `whiteUsername` varchar(256) DEFAULT NULL,
               `blackUsername` varchar(256) DEFAULT NULL,
               `game` TEXT DEFAULT NULL,
+              `finished` boolean NOT NULL DEFAULT FALSE,
               PRIMARY KEY (gameID),
               INDEX(gameName),
               INDEX(whiteUsername),
-              INDEX(blackUsername)
+              INDEX(blackUsername),
+              INDEX(finished)
             ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS  moves (
+              `gameID` int NOT NULL,
+              `ply` int NOT NULL,
+              `move` smallint NOT NULL,
+              PRIMARY KEY (gameID, ply)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS  game_ids (
+              `id` int NOT NULL,
+              `next` int NOT NULL,
+              PRIMARY KEY (id)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci
+            """,
+            // The one counter row starts after any games made before the counter existed
+            """
+            INSERT IGNORE INTO game_ids (id, next) SELECT 1, COALESCE(MAX(gameID), 0) + 1 FROM game
             """
     };
 }
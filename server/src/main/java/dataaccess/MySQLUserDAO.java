@@ -29,11 +29,12 @@ public class MySQLUserDAO implements UserDAO {
 
     public UserData getUser(String username) throws DataAccessException {
         try (var conn = DatabaseManager.getConnection()) {
-            var statement = "SELECT username, password, email FROM user";
-            var ps = conn.prepareStatement(statement);
-            try (var rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    if (Objects.equals(rs.getString("username"), username)) {
+            var statement = "SELECT username, password, email FROM user WHERE username = ?";
+            try (var ps = conn.prepareStatement(statement)) {
+                ps.setString(1, username);
+                try (var rs = ps.executeQuery()) {
+                    // The key's collation ignores case, so make sure the match is exact
+                    if (rs.next() && Objects.equals(rs.getString("username"), username)) {
                         return new UserData(rs.getString("username"), rs.getString("password"), rs.getString("email"));
                     }
                 }
@@ -0,0 +1,306 @@
+package dataaccess;
+
+import chess.ChessGame;
+import model.GameData;
+import request.GameInfo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps games in memory in front of another GameDAO. Reads are served from memory once a game
+ * has been loaded, and updates only change the copy in memory; a background thread writes
+ * changed games to the other DAO every flush interval. Several updates to a game between flushes
+ * become one write of its latest state, and games are written in the order they first changed.
+ * <p>
+ * Games are created in the other DAO straight away, so a game's ID is never lost. If the process
+ * dies, at most the updates from the last flush interval are lost, and each game is written
+ * whole, so the other DAO never holds part of an update.
+ * <p>
+ * Changes to what a listing shows (players, name, finished) are written straight away, so listings
+ * can be read from the other DAO without loading any game into memory. Only the changed game is
+ * written then; the rest wait for the next flush.
+ */
+public class WriteBehindGameDAO implements GameDAO, AutoCloseable {
+
+    /**
+     * @param resident games held in memory
+     * @param dirty games changed in memory and not yet written
+     * @param flushes how many games have been written
+     * @param coalesced updates that were folded into a later write of the same game
+     * @param failures writes that failed and will be tried again
+     */
+    public record Metrics(int resident, int dirty, long flushes, long coalesced, long failures) { }
+
+    private final GameDAO store;
+    private final long flushIntervalMillis;
+    private final int maxResident;
+    private final Map<Integer, GameData> resident = new ConcurrentHashMap<>();
+
+    // The update count at which each changed game first changed since its last write
+    private final Map<Integer, Long> dirty = new ConcurrentHashMap<>();
+    private final AtomicLong updates = new AtomicLong();
+
+    // Writes of a game, and loads of it from the other DAO, hold its lock, so a load never reads a
+    // copy that a write is about to make stale
+    private static final int LOCK_STRIPES = 64;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    // Held by flush and clear, as a lock rather than a monitor so threads waiting on a write don't pin
+    private final ReentrantLock flushing = new ReentrantLock();
+
+    private final ScheduledExecutorService flusher;
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    /**
+     * Games are only written by flush() until start() is called
+     *
+     * @param store where games are kept durably
+     * @param flushIntervalMillis the longest an update waits before being written
+     * @param maxResident how many unchanged games to keep in memory before dropping them
+     */
+    public WriteBehindGameDAO(GameDAO store, long flushIntervalMillis, int maxResident) {
+        this.store = store;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.maxResident = maxResident;
+        for (int i = 0; i < locks.length; ++i) { locks[i] = new ReentrantLock(); }
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts flushing in the background every flush interval
+     *
+     * @return this, so it can be started where it is made
+     */
+    public WriteBehindGameDAO start() {
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    public void createGame(GameData gameData) throws DataAccessException {
+        store.createGame(gameData);
+        resident.put(gameData.gameID(), copy(gameData));
+    }
+
+    public GameData getGame(int gameID) throws DataAccessException {
+        GameData game = resident.get(gameID);
+
+        if (game == null) {
+            ReentrantLock lock = lockFor(gameID);
+            lock.lock();
+            try {
+                game = store.getGame(gameID);
+                if (game == null) { return null; }
+
+                // Another thread may have loaded or changed it in the meantime, so keep theirs
+                GameData loaded = resident.putIfAbsent(gameID, game);
+                if (loaded != null) { game = loaded; }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        return copy(game);
+    }
+
+    public ArrayList<GameData> getGames(Collection<Integer> gameIDs) throws DataAccessException {
+        return withResident(store.getGames(gameIDs));
+    }
+
+    public ArrayList<GameData> listGames() throws DataAccessException {
+        return withResident(store.listGames());
+    }
+
+    public int countGames() throws DataAccessException {
+        // Games are created in the other DAO straight away, so its count is always current
+        return store.countGames();
+    }
+
+    public ArrayList<GameInfo> listGameInfo(GameQuery query) throws DataAccessException {
+        return store.listGameInfo(query);
+    }
+
+    public int countGames(GameQuery query) throws DataAccessException {
+        return store.countGames(query);
+    }
+
+    public int reserveGameIDs(int count) throws DataAccessException {
+        return store.reserveGameIDs(count);
+    }
+
+    /**
+     * Changes the game in memory. The change is written to the other DAO by the next flush, or now
+     * if it changes what a listing shows.
+     */
+    public void updateGame(int gameID, GameData newGameData) throws DataAccessException {
+        if (gameID != newGameData.gameID()) {
+            // Moving a game to a new ID can't be done in memory alone
+            flush();
+            store.updateGame(gameID, newGameData);
+            resident.remove(gameID);
+            return;
+        }
+
+        // Make sure the game exists, since the write is going to happen later
+        GameData old = resident.get(gameID);
+        if (old == null && (old = getGame(gameID)) == null) {
+            throw new DataAccessException("Error: game not found");
+        }
+
+        // Keep a private copy, so the caller changing its game afterwards can't race the flusher. It is
+        // flagged under the map's lock, so evictClean can't drop it between the put and the flag.
+        GameData game = copy(newGameData);
+        resident.compute(gameID, (id, current) -> {
+            if (dirty.putIfAbsent(id, updates.incrementAndGet()) != null) { coalesced.incrementAndGet(); }
+            return game;
+        });
+
+        if (!listedAlike(old, newGameData)) {
+            Long changed = dirty.get(gameID);
+            if (changed != null) { write(gameID, changed); }
+        }
+    }
+
+    /**
+     * Writes every changed game to the other DAO now, oldest change first
+     *
+     * @throws DataAccessException if a game couldn't be written, in which case it stays changed and is tried again
+     */
+    public void flush() throws DataAccessException {
+        flushing.lock();
+        try {
+            flushPending();
+        } finally {
+            flushing.unlock();
+        }
+    }
+
+    private void flushPending() throws DataAccessException {
+        List<Map.Entry<Integer, Long>> pending = new ArrayList<>(dirty.entrySet());
+        pending.sort(Map.Entry.comparingByValue());
+
+        DataAccessException failure = null;
+        for (Map.Entry<Integer, Long> entry : pending) {
+            try {
+                write(entry.getKey(), entry.getValue());
+            } catch (DataAccessException e) {
+                failure = e;
+            }
+        }
+
+        evictClean();
+        if (failure != null) { throw failure; }
+    }
+
+    public Metrics metrics() {
+        return new Metrics(resident.size(), dirty.size(), flushes.get(), coalesced.get(), failures.get());
+    }
+
+    public void clear() throws DataAccessException {
+        flushing.lock();
+        try {
+            dirty.clear();
+            resident.clear();
+            store.clear();
+        } finally {
+            flushing.unlock();
+        }
+    }
+
+    /**
+     * Stops the background flushes and writes anything still changed
+     */
+    @Override
+    public void close() throws DataAccessException {
+        flusher.shutdown();
+        flush();
+    }
+
+    /**
+     * Writes the game if it is still flagged as changed since the given update
+     */
+    private void write(int gameID, long changed) throws DataAccessException {
+        ReentrantLock lock = lockFor(gameID);
+        lock.lock();
+        try {
+            // Clear the flag before reading the game, so an update made during the write flags it again
+            if (!dirty.remove(gameID, changed)) { return; }
+            GameData game = resident.get(gameID);
+            if (game == null) { return; }
+
+            try {
+                store.updateGame(gameID, game);
+                flushes.incrementAndGet();
+            } catch (DataAccessException e) {
+                dirty.putIfAbsent(gameID, changed);
+                failures.incrementAndGet();
+                throw e;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock lockFor(int gameID) {
+        return locks[Math.floorMod(gameID, LOCK_STRIPES)];
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (DataAccessException | RuntimeException e) {
+            // The games stay changed and are written by a later flush
+        }
+    }
+
+    /**
+     * Drops unchanged games once there are more than maxResident, so memory stays bounded
+     */
+    private void evictClean() {
+        if (resident.size() <= maxResident) { return; }
+
+        for (Integer gameID : resident.keySet()) {
+            if (resident.size() <= maxResident) { return; }
+
+            // Checked under the map's lock, so an update landing at the same time is never dropped
+            resident.computeIfPresent(gameID, (id, game) -> dirty.containsKey(id) ? game : null);
+        }
+    }
+
+    /**
+     * Replaces games read from the other DAO with their newer copies in memory
+     */
+    private ArrayList<GameData> withResident(ArrayList<GameData> games) {
+        for (int i = 0; i < games.size(); ++i) {
+            GameData newer = resident.get(games.get(i).gameID());
+            if (newer != null) { games.set(i, copy(newer)); }
+        }
+        return games;
+    }
+
+    private static boolean listedAlike(GameData a, GameData b) {
+        return Objects.equals(a.whiteUsername(), b.whiteUsername()) && Objects.equals(a.blackUsername(), b.blackUsername()) &&
+                Objects.equals(a.gameName(), b.gameName()) && GameQuery.isFinished(a) == GameQuery.isFinished(b);
+    }
+
+    private static GameData copy(GameData game) {
+        ChessGame chessGame = game.game() == null ? null : new ChessGame(game.game());
+        return new GameData(game.gameID(), game.whiteUsername(), game.blackUsername(), game.gameName(), chessGame);
+    }
+}
@@ -6,6 +6,8 @@ import model.GameData;
 import request.*;
 import service.*;
 
+import java.util.Map;
+
 public class Handler {
 
     UserService userService;
@@ -51,17 +53,22 @@ public class Handler {
     }
 
     public String authorize(String request) throws DataAccessException {
-        if(userService.authorize(request) != null) {
-            return userService.authorize(request);
+        String username = userService.authorize(request);
+        if (username != null) {
+            return username;
         }
 
         throw new DataAccessException("Error: unauthorized");
     }
 
-    public String list(String request) throws DataAccessException {
+    /**
+     * @param params the listing's query parameters: after, limit, player, open and finished, each optional
+     */
+    public String list(String request, Map<String, String> params) throws DataAccessException {
         var serializer = new Gson();
 
-        ListRequest listRequest = new ListRequest(request);
+        ListRequest listRequest = new ListRequest(request, parseInt(params.get("after")), parseInt(params.get("limit")),
+                params.get("player"), parseBoolean(params.get("open")), parseBoolean(params.get("finished")));
 
         ListResult listResult = gameService.list(listRequest);
 
@@ -70,20 +77,34 @@ public class Handler {
         return json;
     }
 
+    public String getGame(String authToken, String gameID) throws DataAccessException {
+        var serializer = new Gson();
+
+        GameData game = getGame(parseInt(gameID), authToken);
+
+        String json = serializer.toJson(game);
+
+        return json;
+    }
+
     public GameData getGame(int gameID, String authToken) throws DataAccessException {
-        ListRequest listRequest = new ListRequest(authToken);
+        if (authToken == null) {
+            throw new DataAccessException("Error: bad request");
+        }
 
-        ListResult listResult = gameService.list(listRequest);
+        return gameService.getGame(gameID);
+    }
 
-        return listResult.games().get(gameID-1);
+    public boolean gameExists(int gameID) throws DataAccessException {
+        return gameService.exists(gameID);
     }
 
     public int gameCount(String authToken) throws DataAccessException {
-        ListRequest listRequest = new ListRequest(authToken);
-
-        ListResult listResult = gameService.list(listRequest);
+        if (authToken == null) {
+            throw new DataAccessException("Error: bad request");
+        }
 
-        return listResult.games().size();
+        return gameService.count();
     }
 
     public String join(String authToken, String request) throws DataAccessException {
@@ -126,6 +147,32 @@ public class Handler {
         return json;
     }
 
+    /**
+     * Writes any game changes still held in memory to the database
+     */
+    public void flush() throws DataAccessException {
+        gameService.flush();
+    }
+
+    private static Integer parseInt(String value) throws DataAccessException {
+        if (value == null) { return null; }
+
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new DataAccessException("Error: bad request");
+        }
+    }
+
+    private static Boolean parseBoolean(String value) throws DataAccessException {
+        if (value == null) { return null; }
+        if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+            throw new DataAccessException("Error: bad request");
+        }
+
+        return Boolean.parseBoolean(value);
+    }
+
     public String clear() throws DataAccessException {
         var serializer = new Gson();
 
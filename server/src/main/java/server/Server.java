@@ -9,13 +9,16 @@ import request.UpdateRequest;
 import server.websocket.WebSocketHandler;
 import spark.*;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class Server {
 
     private Handler handler = new Handler();
     private final WebSocketHandler webSocketHandler = new WebSocketHandler(this);
     private String authToken;
+    private final AtomicBoolean stopped = new AtomicBoolean();
 
     public int run(int desiredPort) {
         Spark.port(desiredPort);
@@ -35,6 +38,8 @@ public class Server {
 
         listEndpoint();
 
+        getGameEndpoint();
+
         joinEndpoint();
 
         updateEndpoint();
@@ -50,9 +55,28 @@ public class Server {
         return Spark.port();
     }
 
+    /**
+     * Stops the server and saves its games. Calls after the first do nothing.
+     */
     public void stop() {
+        if (!stopped.compareAndSet(false, true)) { return; }
+
         Spark.stop();
         Spark.awaitStop();
+
+        // Let game commands already received finish, so their changes are in the flush below
+        webSocketHandler.close();
+
+        // Moves are saved in the background, so save any still waiting before shutting down
+        try {
+            handler.flush();
+        } catch (DataAccessException e) {
+            System.err.println("Unable to save games: " + e.getMessage());
+        }
+    }
+
+    public boolean isStopped() {
+        return stopped.get();
     }
 
     private void registerEndpoint() {
@@ -126,7 +150,30 @@ public class Server {
             try {
                 handler.authorize(req.headers("Authorization"));
 
-                String result = handler.list(req.headers("Authorization"));
+                Map<String, String> params = new HashMap<>();
+                for (String name : req.queryParams()) {
+                    params.put(name, req.queryParams(name));
+                }
+
+                String result = handler.list(req.headers("Authorization"), params);
+
+                res.type("application/json");
+                return result;
+            } catch (DataAccessException e) {
+                var serializer = new Gson();
+
+                res.status(convertErrorMessage(e));
+                return serializer.toJson(Map.of("message", e.getMessage()));
+            }
+        });
+    }
+
+    private void getGameEndpoint() {
+        Spark.get("/game/:id", (req, res) -> {
+            try {
+                handler.authorize(req.headers("Authorization"));
+
+                String result = handler.getGame(req.headers("Authorization"), req.params(":id"));
 
                 res.type("application/json");
                 return result;
@@ -203,6 +250,10 @@ public class Server {
         return handler.getGame(gameID, authToken);
     }
 
+    public boolean gameExists(int gameID) throws DataAccessException {
+        return handler.gameExists(gameID);
+    }
+
     public int gameCount(String authToken) throws DataAccessException {
         return handler.gameCount(authToken);
     }
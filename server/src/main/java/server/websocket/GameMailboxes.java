@@ -0,0 +1,228 @@
+package server.websocket;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Runs the commands for each game one at a time, in the order they were submitted, so commands
+ * on the same game never race each other's reads and writes of it. Each game with commands waiting
+ * has a mailbox drained by one task on a shared executor, so different games run in parallel on
+ * every core and no game needs a lock.
+ * <p>
+ * The default executor is a fixed pool of platform threads. Commands block on JDBC, and the MySQL
+ * driver holds monitors while it does, which would pin a virtual thread to its carrier, so virtual
+ * threads would top out at one command per carrier anyway.
+ * <p>
+ * A game's mailbox is dropped once it is empty, so only games with commands waiting or running
+ * hold a queue. The metrics of the most recently dropped mailboxes are kept, up to
+ * {@link #RETIRED_GAMES} games, and carried on if the game gets another command.
+ */
+public class GameMailboxes implements AutoCloseable {
+
+    /**
+     * @param depth commands waiting to run
+     * @param processed commands run
+     * @param averageWaitMillis how long commands waited in the mailbox before running
+     * @param averageRunMillis how long commands took to run
+     * @param maxLatencyMillis the longest a command took from being submitted to finishing
+     */
+    public record Metrics(int depth, long processed, double averageWaitMillis, double averageRunMillis, double maxLatencyMillis) { }
+
+    private record Command(Runnable task, long submittedAt) { }
+
+    private static final class Mailbox {
+        private final Queue<Command> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger depth = new AtomicInteger();
+
+        private long processed;
+        private long waitNanos;
+        private long runNanos;
+        private long maxLatencyNanos;
+
+        private synchronized void record(long waited, long ran) {
+            ++processed;
+            waitNanos += waited;
+            runNanos += ran;
+            maxLatencyNanos = Math.max(maxLatencyNanos, waited + ran);
+        }
+
+        private synchronized Metrics metrics() {
+            return new Metrics(depth.get(), processed, millis(waitNanos, processed), millis(runNanos, processed),
+                    maxLatencyNanos / 1e6);
+        }
+    }
+
+    public static final int RETIRED_GAMES = 1024;
+
+    // Enough threads to keep every core busy while others wait on the database
+    private static final int THREADS = Math.max(16, Runtime.getRuntime().availableProcessors() * 2);
+
+    // A game is in the map exactly while a task is draining its mailbox
+    private final Map<Integer, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    // Empty mailboxes, kept for their metrics and dropped least recently used first
+    private final Map<Integer, Mailbox> retired = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Mailbox> eldest) {
+            return size() > RETIRED_GAMES;
+        }
+    });
+
+    private final ExecutorService executor;
+    private final BiConsumer<Integer, RuntimeException> onFailure;
+    private final Mailbox totals = new Mailbox();
+
+    public GameMailboxes() {
+        this(GameMailboxes::logFailure);
+    }
+
+    /**
+     * @param onFailure told the game and the exception whenever a command throws one
+     */
+    public GameMailboxes(BiConsumer<Integer, RuntimeException> onFailure) {
+        this(Executors.newFixedThreadPool(THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "game-mailbox");
+            thread.setDaemon(true);
+            return thread;
+        }), onFailure);
+    }
+
+    GameMailboxes(ExecutorService executor, BiConsumer<Integer, RuntimeException> onFailure) {
+        this.executor = executor;
+        this.onFailure = onFailure;
+    }
+
+    /**
+     * Queues a command to run after every command already submitted for the game
+     */
+    public void submit(int gameID, Runnable task) {
+        Mailbox[] created = new Mailbox[1];
+
+        // Queued under the game's map entry, so the draining task either sees it or has already left
+        mailboxes.compute(gameID, (id, mailbox) -> {
+            Mailbox target = mailbox != null ? mailbox : retired.remove(id);
+            if (target == null) { target = new Mailbox(); }
+
+            target.queue.add(new Command(task, System.nanoTime()));
+            target.depth.incrementAndGet();
+
+            if (mailbox == null) { created[0] = target; }
+            return target;
+        });
+
+        if (created[0] != null) {
+            try {
+                executor.execute(() -> drain(gameID, created[0]));
+            } catch (RejectedExecutionException e) {
+                mailboxes.remove(gameID, created[0]);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * @return the metrics of the game's mailbox, or null if it has had no commands lately
+     */
+    public Metrics metrics(int gameID) {
+        Mailbox mailbox = mailboxes.get(gameID);
+        if (mailbox == null) { mailbox = retired.get(gameID); }
+        return mailbox == null ? null : mailbox.metrics();
+    }
+
+    /**
+     * @return the metrics of every game with commands waiting or running, and of the games that
+     * most recently had some
+     */
+    public Map<Integer, Metrics> metrics() {
+        Map<Integer, Metrics> metrics = new HashMap<>();
+        synchronized (retired) {
+            retired.forEach((gameID, mailbox) -> metrics.put(gameID, mailbox.metrics()));
+        }
+        mailboxes.forEach((gameID, mailbox) -> metrics.put(gameID, mailbox.metrics()));
+        return metrics;
+    }
+
+    /**
+     * @return the metrics of every command run so far, over all games
+     */
+    public Metrics totals() {
+        Metrics metrics = totals.metrics();
+        int depth = 0;
+        for (Mailbox mailbox : mailboxes.values()) { depth += mailbox.depth.get(); }
+
+        return new Metrics(depth, metrics.processed(), metrics.averageWaitMillis(), metrics.averageRunMillis(),
+                metrics.maxLatencyMillis());
+    }
+
+    /**
+     * Stops taking new games' commands, and waits for the commands already submitted to run
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    private void drain(int gameID, Mailbox mailbox) {
+        do {
+            Command command;
+            while ((command = mailbox.queue.poll()) != null) {
+                mailbox.depth.decrementAndGet();
+                run(gameID, mailbox, command);
+            }
+        } while (!retire(gameID, mailbox));
+    }
+
+    /**
+     * Retires the mailbox if it is still empty; otherwise a command came in since the last poll
+     */
+    private boolean retire(int gameID, Mailbox mailbox) {
+        boolean[] empty = new boolean[1];
+
+        mailboxes.computeIfPresent(gameID, (id, current) -> {
+            empty[0] = mailbox.queue.isEmpty();
+            if (empty[0]) { retired.put(id, mailbox); }
+            return empty[0] ? null : current;
+        });
+
+        return empty[0];
+    }
+
+    private void run(int gameID, Mailbox mailbox, Command command) {
+        long started = System.nanoTime();
+        try {
+            command.task().run();
+        } catch (RuntimeException e) {
+            // One failed command mustn't stop the rest of the game's commands
+            try {
+                onFailure.accept(gameID, e);
+            } catch (RuntimeException reportFailed) {
+                e.addSuppressed(reportFailed);
+                logFailure(gameID, e);
+            }
+        }
+
+        long waited = started - command.submittedAt();
+        long ran = System.nanoTime() - started;
+        mailbox.record(waited, ran);
+        totals.record(waited, ran);
+    }
+
+    private static void logFailure(int gameID, RuntimeException e) {
+        System.err.println("Command on game " + gameID + " failed:");
+        e.printStackTrace();
+    }
+
+    private static double millis(long nanos, long count) {
+        return count == 0 ? 0 : nanos / 1e6 / count;
+    }
+}
@@ -1,6 +1,7 @@
 package server.websocket;
 
 import chess.ChessGame;
+import chess.GameStatus;
 import chess.InvalidMoveException;
 import com.google.gson.Gson;
 import dataaccess.DataAccessException;
@@ -15,23 +16,69 @@ import websocket.commands.*;
 import websocket.messages.*;
 
 import java.io.IOException;
+import java.util.Map;
 import java.util.Objects;
 
 @WebSocket
 public class WebSocketHandler {
 
     private final ConnectionManager connections = new ConnectionManager();
+    private final GameMailboxes mailboxes = new GameMailboxes();
     private Server server;
 
     public WebSocketHandler(Server server) {
         this.server = server;
     }
 
+    /**
+     * Hands the command to its game's mailbox, so commands on one game run one at a time, in the
+     * order they arrived, and none of them run on Jetty's threads
+     */
     @OnWebSocketMessage
     public void onMessage(Session session, String message) throws IOException {
         try {
             UserGameCommand command = new Gson().fromJson(message, UserGameCommand.class);
 
+            mailboxes.submit(command.getGameID(), () -> {
+                try {
+                    handle(session, message, command);
+                } catch (IOException e) {
+                    // The session closed, so there is no one to tell
+                } catch (RuntimeException e) {
+                    // Tell the player, then let the mailbox log it with its stack trace
+                    sendError(session, "Error: unable to handle command");
+                    throw e;
+                }
+            });
+        } catch (Exception ex) {
+            session.getRemote().sendString(new Gson().toJson(new ErrorMessage("Error: invalid command")));
+        }
+    }
+
+    /**
+     * @return how deep each active or recently active game's mailbox is and how long its commands take
+     */
+    public Map<Integer, GameMailboxes.Metrics> mailboxMetrics() {
+        return mailboxes.metrics();
+    }
+
+    /**
+     * Waits for every command already received to finish
+     */
+    public void close() {
+        mailboxes.close();
+    }
+
+    private void sendError(Session session, String message) {
+        try {
+            session.getRemote().sendString(new Gson().toJson(new ErrorMessage(message)));
+        } catch (IOException | RuntimeException e) {
+            // The session closed, so there is no one to tell
+        }
+    }
+
+    private void handle(Session session, String message, UserGameCommand command) throws IOException {
+        try {
             String username = "";
             try {
                 username = server.authorize(command.getAuthToken());
@@ -39,7 +86,7 @@ public class WebSocketHandler {
                 throw new UnauthorizedException("unauthorized");
             }
 
-            if (command.getGameID() > server.gameCount(command.getAuthToken())) { throw new Exception("Error: invalid game ID."); }
+            if (!server.gameExists(command.getGameID())) { throw new Exception("Error: invalid game ID."); }
 
             switch (command.getCommandType()) {
                 case CONNECT -> connect(session, username, new Gson().fromJson(message, ConnectCommand.class));
@@ -109,29 +156,27 @@ public class WebSocketHandler {
 
                     connections.broadcast(null, new LoadGameMessage(command.getGameID(), command.getMove()), command.getGameID());
 
-                    if (game.isInCheckmate(game.getTeamTurn())) {
-
-                        String checkmateMessage = (game.getTeamTurn() == ChessGame.TeamColor.WHITE ?
-                                gameData.whiteUsername() : gameData.blackUsername()) + " is in checkmate.";
-
-                        connections.broadcast(null, new NotificationMessage(checkmateMessage), command.getGameID());
+                    String player = game.getTeamTurn() == ChessGame.TeamColor.WHITE ?
+                            gameData.whiteUsername() : gameData.blackUsername();
+
+                    // The status is worked out once for the new position
+                    GameStatus.State state = game.getStatus().state();
+                    switch (state) {
+                        case CHECKMATE -> connections.broadcast(null, new NotificationMessage(player + " is in checkmate."), command.getGameID());
+                        case CHECK -> connections.broadcast(null, new NotificationMessage(player + " is in check."), command.getGameID());
+                        case STALEMATE -> connections.broadcast(null, new NotificationMessage(player + " is in stalemate."), command.getGameID());
+                        case THREEFOLD_REPETITION -> connections.broadcast(null,
+                                new NotificationMessage("The game is a draw by threefold repetition."), command.getGameID());
+                        case FIFTY_MOVE_RULE -> connections.broadcast(null,
+                                new NotificationMessage("The game is a draw by the fifty-move rule."), command.getGameID());
+                        default -> { }
+                    }
 
+                    // Save the finished game so no more moves can be made in it
+                    if (state.isGameOver()) {
                         game.finishGame();
-
-                    } else if (game.isInCheck(game.getTeamTurn())) {
-
-                        String checkMessage = (game.getTeamTurn() == ChessGame.TeamColor.WHITE ?
-                                gameData.whiteUsername() : gameData.blackUsername()) + " is in check.";
-
-                        connections.broadcast(null, new NotificationMessage(checkMessage), command.getGameID());
-
-                    } else if (game.isInStalemate(game.getTeamTurn())) {
-
-                        String staleMessage = (game.getTeamTurn() == ChessGame.TeamColor.WHITE ?
-                                gameData.whiteUsername() : gameData.blackUsername()) + " is in stalemate.";
-
-                        connections.broadcast(null, new NotificationMessage(staleMessage), command.getGameID());
-
+                        server.updateGame(command.getAuthToken(),
+                                new UpdateRequest(game, gameData.gameID(), gameData.whiteUsername(), gameData.blackUsername()));
                     }
                 } catch (InvalidMoveException e) {
                     session.getRemote().sendString(new Gson().toJson(new ErrorMessage("Error: invalid move")));
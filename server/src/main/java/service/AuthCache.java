@@ -0,0 +1,128 @@
+package service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers which user each recently used auth token belongs to, so checking a token doesn't
+ * need the database every time. Entries expire after a fixed time, which is checked when they are
+ * read, and once the cache is full the least recently used token is dropped. Every operation is a
+ * single hash lookup, so the lock they share is only held briefly.
+ */
+public class AuthCache {
+
+    /**
+     * @param size tokens currently cached
+     * @param hits lookups answered from the cache
+     * @param misses lookups that had to go to the database
+     * @param evictions tokens dropped because they expired or the cache was full
+     */
+    public record Metrics(int size, long hits, long misses, long evictions) {
+        public double hitRate() {
+            return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+        }
+    }
+
+    private record Entry(String username, long expiresAt) { }
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, Entry> entries;
+
+    // Counts invalidations, so a token read from the database before one can't be cached after it
+    private long generation;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param maxSize the most tokens to keep
+     * @param ttlMillis how long a token is trusted before the database is checked again
+     */
+    public AuthCache(int maxSize, long ttlMillis) {
+        this(maxSize, ttlMillis, System::nanoTime);
+    }
+
+    AuthCache(int maxSize, long ttlMillis, LongSupplier clock) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000;
+        this.clock = clock;
+
+        // Access order, so the eldest entry is the least recently used
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= AuthCache.this.maxSize) { return false; }
+
+                ++evictions;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @return the user the token belongs to, or null if the token isn't cached or has expired
+     */
+    public synchronized String get(String authToken) {
+        Entry entry = entries.get(authToken);
+
+        if (entry != null && entry.expiresAt() - clock.getAsLong() <= 0) {
+            entries.remove(authToken);
+            ++evictions;
+            entry = null;
+        }
+
+        if (entry == null) {
+            ++misses;
+            return null;
+        }
+
+        ++hits;
+        return entry.username();
+    }
+
+    public synchronized void put(String authToken, String username) {
+        entries.put(authToken, new Entry(username, clock.getAsLong() + ttlNanos));
+    }
+
+    /**
+     * @return the current generation; take it before reading a token from the database, and pass it to put
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Caches a token read from the database, unless a token was invalidated since the read began,
+     * in which case the read may have seen a token that no longer exists
+     *
+     * @param generation what generation() returned before the read
+     * @return whether the token was cached
+     */
+    public synchronized boolean put(String authToken, String username, long generation) {
+        if (generation != this.generation) { return false; }
+
+        put(authToken, username);
+        return true;
+    }
+
+    /**
+     * Forgets a token, e.g. when its user logs out
+     */
+    public synchronized void invalidate(String authToken) {
+        entries.remove(authToken);
+        ++generation;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        ++generation;
+    }
+
+    public synchronized Metrics metrics() {
+        return new Metrics(entries.size(), hits, misses, evictions);
+    }
+}
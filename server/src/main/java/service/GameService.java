@@ -2,30 +2,58 @@ package service;
 import chess.ChessGame;
 import dataaccess.DataAccessException;
 import dataaccess.GameDAO;
+import dataaccess.GameIdAllocator;
+import dataaccess.GameQuery;
 import dataaccess.MySQLGameDAO;
+import dataaccess.WriteBehindGameDAO;
 import model.GameData;
 import request.*;
 
+import java.util.ArrayList;
+
 public class GameService {
 
+    // Shared by every GameService, so there is only one copy of each game in memory
+    private static WriteBehindGameDAO sharedGameDAO;
+    private static GameIdAllocator sharedGameIDs;
+
+    // How many games a listing page holds when the request doesn't say, and at most
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+
     private GameDAO gameDAO;
+    private GameIdAllocator gameIDs;
 
     {
         try {
-            gameDAO = new MySQLGameDAO();
+            gameDAO = sharedGameDAO();
+            gameIDs = sharedGameIDs;
         } catch (DataAccessException e) {
             throw new RuntimeException(e);
         }
     }
 
+    private static synchronized WriteBehindGameDAO sharedGameDAO() throws DataAccessException {
+        if (sharedGameDAO == null) {
+            sharedGameDAO = new WriteBehindGameDAO(new MySQLGameDAO(), 200, 10_000).start();
+            sharedGameIDs = new GameIdAllocator(sharedGameDAO, 32);
+        }
+        return sharedGameDAO;
+    }
+
+    /**
+     * Writes every game changed in memory to the database, e.g. before the server stops
+     */
+    public void flush() throws DataAccessException {
+        sharedGameDAO().flush();
+    }
+
     public CreateResult create(CreateRequest createRequest) throws DataAccessException {
         if (createRequest.gameName() == null) {
             throw new DataAccessException("Error: bad request");
         }
 
-        ListResult listResult = new ListResult(gameDAO.listGames());
-
-        int gameID = listResult.games().size()+1;
+        int gameID = gameIDs.nextGameID();
 
         GameData newGame = new GameData(gameID, null, null, createRequest.gameName(), new ChessGame());
 
@@ -90,17 +118,55 @@ public class GameService {
         }
     }
 
+    public GameData getGame(int gameID) throws DataAccessException {
+        GameData game = gameDAO.getGame(gameID);
+
+        if (game == null) {
+            throw new DataAccessException("Error: bad request");
+        }
+
+        return game;
+    }
+
+    public boolean exists(int gameID) throws DataAccessException {
+        return gameID > 0 && gameDAO.getGame(gameID) != null;
+    }
+
+    public int count() throws DataAccessException {
+        return gameDAO.countGames();
+    }
+
     public ListResult list(ListRequest listRequest) throws DataAccessException {
         if (listRequest.authToken() == null) {
             throw new DataAccessException("Error: bad request");
         }
 
-        ListResult result = new ListResult(gameDAO.listGames());
+        int limit = listRequest.limit() == null ? DEFAULT_PAGE_SIZE : listRequest.limit();
+        if (limit <= 0) {
+            throw new DataAccessException("Error: bad request");
+        }
+        limit = Math.min(limit, MAX_PAGE_SIZE);
+
+        // Ask for one game more than the page holds, to tell whether there is another page
+        GameQuery query = new GameQuery(listRequest.after(), limit + 1, listRequest.player(), listRequest.open(), listRequest.finished());
+        ArrayList<GameInfo> games = gameDAO.listGameInfo(query);
+
+        Integer nextCursor = null;
+        if (games.size() > limit) {
+            games.remove(limit);
+            nextCursor = games.getLast().gameID();
+        }
+
+        // Counting is the one part that grows with the table, so only the first page pays for it
+        Integer total = listRequest.after() == null ? gameDAO.countGames(query) : null;
+
+        ListResult result = new ListResult(games, nextCursor, total);
 
         return result;
     }
 
     public void clear() throws DataAccessException {
         gameDAO.clear();
+        gameIDs.reset();
     }
 }
@@ -8,6 +8,9 @@ import java.util.UUID;
 
 public class UserService {
 
+    // Shared by every UserService, so a logout through one is seen by all of them
+    private static final AuthCache AUTH_CACHE = new AuthCache(10_000, 5 * 60 * 1000);
+
     private UserDAO userDAO;
 
     {
@@ -46,6 +49,7 @@ public class UserService {
         AuthData newAuth = new AuthData(UUID.randomUUID().toString(), registerRequest.username());
 
         authDAO.createAuth(newAuth);
+        AUTH_CACHE.put(newAuth.authToken(), newAuth.username());
 
         RegisterResult result = new RegisterResult(newAuth.username(), newAuth.authToken());
 
@@ -69,6 +73,7 @@ public class UserService {
             AuthData newAuth = new AuthData(UUID.randomUUID().toString(), loginRequest.username());
 
             authDAO.createAuth(newAuth);
+            AUTH_CACHE.put(newAuth.authToken(), newAuth.username());
 
             LoginResult result = new LoginResult(newAuth.username(), newAuth.authToken());
 
@@ -82,7 +87,9 @@ public class UserService {
         if (authData == null) {
             throw new DataAccessException("Error: unauthorized");
         } else {
+            // Forget the token only once it is gone, so a check in between can't cache it again
             authDAO.deleteAuth(authData);
+            AUTH_CACHE.invalidate(authData.authToken());
         }
 
         // No return value
@@ -93,15 +100,34 @@ public class UserService {
     }
 
     public String getUsername(String authToken) throws DataAccessException {
-        if (authToken == null || authDAO.getAuth(authToken) == null) {
+        if (authToken == null) {
+            throw new DataAccessException("Error: unauthorized");
+        }
+
+        String username = AUTH_CACHE.get(authToken);
+        if (username != null) { return username; }
+
+        // A logout landing between the read and the put stops the put, so a revoked token is never cached
+        long generation = AUTH_CACHE.generation();
+        AuthData authData = authDAO.getAuth(authToken);
+        if (authData == null) {
             throw new DataAccessException("Error: unauthorized");
         }
 
-        return authDAO.getAuth(authToken).username();
+        AUTH_CACHE.put(authToken, authData.username(), generation);
+        return authData.username();
+    }
+
+    /**
+     * @return how often tokens were found in the cache rather than the database
+     */
+    public AuthCache.Metrics authCacheMetrics() {
+        return AUTH_CACHE.metrics();
     }
 
     public void clear() throws DataAccessException {
         userDAO.clear();
         authDAO.clear();
+        AUTH_CACHE.clear();
     }
 }
@@ -0,0 +1,199 @@
+package dataaccess;
+
+import org.junit.jupiter.api.*;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConnectionPoolTests {
+
+    private final AtomicInteger opened = new AtomicInteger();
+    private final AtomicInteger prepared = new AtomicInteger();
+    private final AtomicInteger closedStatements = new AtomicInteger();
+
+    /**
+     * Opens stand-in connections that count how many connections and statements are created
+     */
+    private Connection fakeConnection() {
+        opened.incrementAndGet();
+        boolean[] closed = {false};
+
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "prepareStatement" -> {
+                        prepared.incrementAndGet();
+                        yield Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                                new Class<?>[]{PreparedStatement.class}, (statement, call, callArgs) -> {
+                                    if (call.getName().equals("close")) { closedStatements.incrementAndGet(); }
+                                    return null;
+                                });
+                    }
+                    case "close" -> closed[0] = true;
+                    case "isClosed" -> closed[0];
+                    case "isValid" -> !closed[0];
+                    case "getAutoCommit" -> true;
+                    default -> null;
+                });
+    }
+
+    private ConnectionPool pool(int maxSize, long timeoutMillis) {
+        return new ConnectionPool(this::fakeConnection,
+                new ConnectionPool.Config(1, maxSize, timeoutMillis, 60_000, 5_000, 8));
+    }
+
+    @Test
+    @DisplayName("Positive Reuse Connection Test")
+    public void positiveReuseConnectionTest() throws SQLException {
+        try (ConnectionPool pool = pool(4, 1_000)) {
+            for (int i = 0; i < 10; ++i) {
+                try (Connection conn = pool.borrow()) {
+                    try (var ps = conn.prepareStatement("SELECT 1")) {
+                        ps.executeQuery();
+                    }
+                }
+            }
+
+            Assertions.assertEquals(1, opened.get());
+            Assertions.assertEquals(1, prepared.get());
+
+            ConnectionPool.Metrics metrics = pool.metrics();
+            Assertions.assertEquals(0, metrics.active());
+            Assertions.assertEquals(1, metrics.idle());
+            Assertions.assertEquals(10, metrics.borrows());
+            Assertions.assertEquals(9, metrics.statementCacheHits());
+        }
+    }
+
+    @Test
+    @DisplayName("Negative Pool Exhausted Test")
+    public void negativePoolExhaustedTest() throws SQLException {
+        try (ConnectionPool pool = pool(2, 50)) {
+            Connection first = pool.borrow();
+            Connection second = pool.borrow();
+
+            Assertions.assertThrows(SQLException.class, pool::borrow);
+            Assertions.assertEquals(2, pool.metrics().active());
+
+            first.close();
+            first.close();
+            Assertions.assertThrows(SQLException.class, () -> first.prepareStatement("SELECT 1"));
+            Assertions.assertDoesNotThrow(() -> pool.borrow().close());
+
+            second.close();
+            Assertions.assertEquals(0, pool.metrics().active());
+            Assertions.assertEquals(2, pool.metrics().idle());
+        }
+    }
+
+    @Test
+    @DisplayName("Positive Unclosed Statement Test")
+    public void positiveUnclosedStatementTest() throws SQLException {
+        try (ConnectionPool pool = pool(1, 1_000)) {
+            try (Connection conn = pool.borrow()) {
+                PreparedStatement open = conn.prepareStatement("SELECT 1");
+                Assertions.assertNotSame(open, conn.prepareStatement("SELECT 1"));
+            }
+
+            // Statements left open are freed when the connection goes back
+            try (Connection conn = pool.borrow()) {
+                conn.prepareStatement("SELECT 1").close();
+            }
+
+            Assertions.assertEquals(2, prepared.get());
+        }
+    }
+
+    @Test
+    @DisplayName("Positive Open Statement Not Evicted Test")
+    public void positiveOpenStatementNotEvictedTest() throws SQLException {
+        try (ConnectionPool pool = new ConnectionPool(this::fakeConnection,
+                new ConnectionPool.Config(1, 1, 1_000, 60_000, 5_000, 1))) {
+            try (Connection conn = pool.borrow()) {
+                PreparedStatement first = conn.prepareStatement("SELECT 1");
+                PreparedStatement second = conn.prepareStatement("SELECT 2");
+
+                // The first statement fell out of the cache while open, so it is only closed once the connection goes back
+                Assertions.assertEquals(0, closedStatements.get());
+                Assertions.assertSame(conn, first.getConnection());
+                Assertions.assertSame(conn, second.getConnection());
+            }
+
+            Assertions.assertEquals(1, closedStatements.get());
+        }
+    }
+
+    @Test
+    @DisplayName("Positive Warm Up Test")
+    public void positiveWarmUpTest() throws SQLException {
+        try (ConnectionPool pool = new ConnectionPool(this::fakeConnection,
+                new ConnectionPool.Config(2, 4, 1_000, 60_000, 5_000, 8))) {
+            pool.warmUp();
+
+            Assertions.assertEquals(2, opened.get());
+            Assertions.assertEquals(2, pool.metrics().idle());
+
+            pool.borrow().close();
+            Assertions.assertEquals(2, opened.get());
+        }
+    }
+
+    @Test
+    @DisplayName("Negative Warm Up Past Max Size Test")
+    public void negativeWarmUpPastMaxSizeTest() throws Exception {
+        CountDownLatch warming = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // The warm-up's connection is slow to open, so borrowers come along while it is opening
+        ConnectionPool.ConnectionFactory factory = () -> {
+            if (Thread.currentThread().getName().equals("warm-up")) {
+                warming.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return fakeConnection();
+        };
+
+        try (ConnectionPool pool = new ConnectionPool(factory, new ConnectionPool.Config(2, 2, 5_000, 60_000, 5_000, 8))) {
+            Thread warmUp = new Thread(() -> {
+                try {
+                    pool.warmUp();
+                } catch (SQLException e) {
+                    throw new RuntimeException(e);
+                }
+            }, "warm-up");
+            warmUp.start();
+            Assertions.assertTrue(warming.await(5, TimeUnit.SECONDS));
+
+            Connection first = pool.borrow();
+            Connection[] second = new Connection[1];
+            Thread borrower = new Thread(() -> {
+                try {
+                    second[0] = pool.borrow();
+                } catch (SQLException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            borrower.start();
+
+            // The second borrower waits for the warm-up's connection rather than opening a third
+            Thread.sleep(100);
+            release.countDown();
+            borrower.join();
+            warmUp.join();
+
+            Assertions.assertNotNull(second[0]);
+            Assertions.assertEquals(2, opened.get());
+
+            first.close();
+            second[0].close();
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package dataaccess;
 
 import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
 import model.AuthData;
 import model.GameData;
 import model.UserData;
 import org.junit.jupiter.api.*;
+import request.GameInfo;
 
 import java.util.ArrayList;
+import java.util.List;
 
 public class DataAccessTests {
 
@@ -294,6 +299,37 @@ public class DataAccessTests {
         Assertions.assertNull(result);
     }
 
+    @Test
+    @DisplayName("Positive Get Games Test")
+    public void positiveGetGamesTest() throws DataAccessException {
+        MySQLGameDAO dao = new MySQLGameDAO();
+
+        dao.clear();
+
+        for (int i = 1; i <= 3; ++i) {
+            dao.createGame(new GameData(i, "me", "you", "game " + i, new ChessGame()));
+        }
+
+        ArrayList<GameData> result = dao.getGames(List.of(3, 1));
+
+        Assertions.assertEquals(2, result.size());
+        Assertions.assertEquals("game 1", result.get(0).gameName());
+        Assertions.assertEquals("game 3", result.get(1).gameName());
+    }
+
+    @Test
+    @DisplayName("Negative Get Games Test")
+    public void negativeGetGamesTest() throws DataAccessException {
+        MySQLGameDAO dao = new MySQLGameDAO();
+
+        dao.clear();
+
+        dao.createGame(new GameData(1, "me", "you", "the game", new ChessGame()));
+
+        Assertions.assertTrue(dao.getGames(List.of(1234567890)).isEmpty());
+        Assertions.assertTrue(dao.getGames(List.of()).isEmpty());
+    }
+
     @Test
     @DisplayName("Positive Update Game Test")
     public void positiveUpdateGameTest() throws DataAccessException {
@@ -320,6 +356,88 @@ public class DataAccessTests {
         Assertions.assertEquals("isn't the game", result2.gameName());
     }
 
+    @Test
+    @DisplayName("Positive Update Game Moves Test")
+    public void positiveUpdateGameMovesTest() throws DataAccessException, InvalidMoveException {
+        MySQLGameDAO dao = new MySQLGameDAO();
+
+        dao.clear();
+
+        ChessGame game = new ChessGame();
+        dao.createGame(new GameData(1, "me", "you", "the game", game));
+
+        ChessMove[] knightMoves = {
+                ChessMove.of(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null),
+                ChessMove.of(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null),
+                ChessMove.of(ChessPosition.of(3, 6), ChessPosition.of(1, 7), null),
+                ChessMove.of(ChessPosition.of(6, 6), ChessPosition.of(8, 7), null)
+        };
+
+        // Enough moves to pass a snapshot, saved one at a time like the server does
+        for (int i = 0; i < 40; ++i) {
+            game.makeMove(knightMoves[i % knightMoves.length]);
+            dao.updateGame(1, new GameData(1, "me", "you", "the game", game));
+        }
+
+        GameData result = dao.getGame(1);
+
+        Assertions.assertEquals(game, result.game());
+        Assertions.assertEquals(game.getMoveHistory(), result.game().getMoveHistory());
+        Assertions.assertEquals(game.toFen(), dao.listGames().get(0).game().toFen());
+    }
+
+    @Test
+    @DisplayName("Positive Update Game ID Test")
+    public void positiveUpdateGameIDTest() throws DataAccessException, InvalidMoveException {
+        MySQLGameDAO dao = new MySQLGameDAO();
+
+        dao.clear();
+
+        ChessGame game = new ChessGame();
+        dao.createGame(new GameData(1, "me", "you", "the game", game));
+
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        dao.updateGame(1, new GameData(1, "me", "you", "the game", game));
+
+        game.makeMove(ChessMove.of(ChessPosition.of(7, 5), ChessPosition.of(5, 5), null));
+        dao.updateGame(1, new GameData(2, "me", "you", "the game", game));
+
+        GameData result = dao.getGame(2);
+
+        Assertions.assertNull(dao.getGame(1));
+        Assertions.assertEquals(game, result.game());
+        Assertions.assertEquals(game.getMoveHistory(), result.game().getMoveHistory());
+    }
+
+    @Test
+    @DisplayName("Positive Update Game Replaced Moves Test")
+    public void positiveUpdateGameReplacedMovesTest() throws DataAccessException, InvalidMoveException {
+        MySQLGameDAO dao = new MySQLGameDAO();
+
+        dao.clear();
+
+        ChessGame game = new ChessGame();
+        dao.createGame(new GameData(1, "me", "you", "the game", game));
+
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        dao.updateGame(1, new GameData(1, "me", "you", "the game", game));
+        game.makeMove(ChessMove.of(ChessPosition.of(7, 5), ChessPosition.of(5, 5), null));
+        dao.updateGame(1, new GameData(1, "me", "you", "the game", game));
+
+        // The same number of moves, but not the ones in the log
+        game.undoMove();
+        game.undoMove();
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 4), ChessPosition.of(4, 4), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(7, 4), ChessPosition.of(5, 4), null));
+        dao.updateGame(1, new GameData(1, "me", "you", "the game", game));
+
+        // A new DAO has nothing remembered, so it reads everything from the database
+        GameData result = new MySQLGameDAO().getGame(1);
+
+        Assertions.assertEquals(game, result.game());
+        Assertions.assertEquals(game.getMoveHistory(), result.game().getMoveHistory());
+    }
+
     @Test
     @DisplayName("Negative Update Game Test")
     public void negativeUpdateGameTest() throws DataAccessException {
@@ -383,4 +501,26 @@ public class DataAccessTests {
         Assertions.assertTrue(list.isEmpty());
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Positive List Game Info Test")
+    public void positiveListGameInfoTest() throws DataAccessException {
+        MySQLGameDAO dao = new MySQLGameDAO();
+
+        dao.clear();
+
+        ChessGame finished = new ChessGame();
+        finished.finishGame();
+
+        dao.createGame(new GameData(1, "me", null, "the game", new ChessGame()));
+        dao.createGame(new GameData(2, "me", "you", "isn't the game", finished));
+        dao.createGame(new GameData(3, "not me", "not you", "another game", new ChessGame()));
+
+        ArrayList<GameInfo> page = dao.listGameInfo(new GameQuery(1, 1, "me", null, null));
+
+        Assertions.assertEquals(1, page.size());
+        Assertions.assertEquals(2, page.getFirst().gameID());
+        Assertions.assertTrue(page.getFirst().finished());
+        Assertions.assertEquals(1, dao.listGameInfo(new GameQuery(null, 10, null, true, null)).size());
+        Assertions.assertEquals(2, dao.countGames(new GameQuery(1, 1, null, null, false)));
+    }
+}
@@ -0,0 +1,57 @@
+package dataaccess;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class GameIdAllocatorTests {
+
+    @Test
+    @DisplayName("Positive Concurrent IDs Test")
+    public void positiveConcurrentIDsTest() throws Exception {
+        GameIdAllocator allocator = new GameIdAllocator(new MemoryGameDAO(), 8);
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < 8; ++t) {
+                tasks.add(pool.submit(() -> {
+                    for (int i = 0; i < 1000; ++i) {
+                        Assertions.assertTrue(ids.add(allocator.nextGameID()));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> task : tasks) { task.get(); }
+        } finally {
+            pool.shutdown();
+        }
+
+        // Every block is used up, so no ID is skipped
+        Assertions.assertEquals(8000, ids.size());
+        Assertions.assertEquals(1, ids.stream().mapToInt(Integer::intValue).min().getAsInt());
+        Assertions.assertEquals(8000, ids.stream().mapToInt(Integer::intValue).max().getAsInt());
+    }
+
+    @Test
+    @DisplayName("Positive Reset Test")
+    public void positiveResetTest() throws DataAccessException {
+        MemoryGameDAO dao = new MemoryGameDAO();
+        GameIdAllocator allocator = new GameIdAllocator(dao, 8);
+
+        Assertions.assertEquals(1, allocator.nextGameID());
+        Assertions.assertEquals(2, allocator.nextGameID());
+
+        dao.clear();
+        allocator.reset();
+
+        Assertions.assertEquals(1, allocator.nextGameID());
+    }
+}
@@ -0,0 +1,95 @@
+package dataaccess;
+
+import chess.ChessGame;
+import model.AuthData;
+import model.GameData;
+import model.UserData;
+import org.junit.jupiter.api.*;
+import request.GameInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class MemoryDataAccessTests {
+
+    @Test
+    @DisplayName("Positive Memory Auth Test")
+    public void positiveMemoryAuthTest() throws DataAccessException {
+        MemoryAuthDAO dao = new MemoryAuthDAO();
+
+        dao.createAuth(new AuthData("token", "me"));
+
+        Assertions.assertEquals("me", dao.getUsername("token"));
+
+        dao.deleteAuth(new AuthData("token", "me"));
+
+        Assertions.assertNull(dao.getAuth("token"));
+        Assertions.assertNull(dao.getAuth(null));
+    }
+
+    @Test
+    @DisplayName("Negative Concurrent Register Test")
+    public void negativeConcurrentRegisterTest() throws Exception {
+        MemoryUserDAO dao = new MemoryUserDAO();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        try {
+            for (int i = 0; i < 8; ++i) {
+                String email = "me" + i + "@mail.com";
+                attempts.add(pool.submit(() -> {
+                    try {
+                        dao.createUser(new UserData("me", "password", email));
+                        return true;
+                    } catch (DataAccessException e) {
+                        return false;
+                    }
+                }));
+            }
+
+            int created = 0;
+            for (Future<Boolean> attempt : attempts) {
+                if (attempt.get()) { ++created; }
+            }
+
+            Assertions.assertEquals(1, created);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Positive Player Index Test")
+    public void positivePlayerIndexTest() throws DataAccessException {
+        MemoryGameDAO dao = new MemoryGameDAO();
+
+        dao.createGame(new GameData(1, "me", "you", "the game", new ChessGame()));
+        dao.createGame(new GameData(2, "you", null, "isn't the game", new ChessGame()));
+        dao.createGame(new GameData(3, "not me", "me", "another game", new ChessGame()));
+
+        // Leaving the first game takes it out of my listings
+        dao.updateGame(1, new GameData(1, null, "you", "the game", new ChessGame()));
+
+        ArrayList<GameInfo> mine = dao.listGameInfo(new GameQuery(null, 10, "me", null, null));
+        ArrayList<GameInfo> yours = dao.listGameInfo(new GameQuery(1, 10, "you", null, null));
+
+        Assertions.assertEquals(List.of(3), mine.stream().map(GameInfo::gameID).toList());
+        Assertions.assertEquals(List.of(2), yours.stream().map(GameInfo::gameID).toList());
+        Assertions.assertEquals(2, dao.countGames(new GameQuery(null, 1, "you", true, null)));
+    }
+
+    @Test
+    @DisplayName("Negative Duplicate Game Test")
+    public void negativeDuplicateGameTest() throws DataAccessException {
+        MemoryGameDAO dao = new MemoryGameDAO();
+
+        dao.createGame(new GameData(1, "me", "you", "the game", new ChessGame()));
+
+        Assertions.assertThrows(DataAccessException.class,
+                () -> dao.createGame(new GameData(1, null, null, "another game", new ChessGame())));
+        Assertions.assertEquals("the game", dao.getGame(1).gameName());
+    }
+}
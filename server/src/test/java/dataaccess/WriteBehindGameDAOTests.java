@@ -0,0 +1,186 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import model.GameData;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class WriteBehindGameDAOTests {
+
+    private MemoryGameDAO store;
+    private WriteBehindGameDAO dao;
+
+    @BeforeEach
+    public void setUp() throws DataAccessException {
+        store = new MemoryGameDAO();
+        // Not started, so the tests decide when games are flushed
+        dao = new WriteBehindGameDAO(store, 60_000, 10);
+        dao.createGame(new GameData(1, "me", "you", "the game", new ChessGame()));
+    }
+
+    @AfterEach
+    public void tearDown() throws DataAccessException {
+        dao.close();
+    }
+
+    @Test
+    @DisplayName("Positive Update In Memory Test")
+    public void positiveUpdateInMemoryTest() throws DataAccessException, InvalidMoveException {
+        GameData gameData = dao.getGame(1);
+        gameData.game().makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        dao.updateGame(1, gameData);
+
+        gameData.game().makeMove(ChessMove.of(ChessPosition.of(7, 5), ChessPosition.of(5, 5), null));
+        dao.updateGame(1, gameData);
+
+        Assertions.assertEquals(2, dao.getGame(1).game().getPlyCount());
+        Assertions.assertEquals(0, store.getGame(1).game().getPlyCount());
+        Assertions.assertEquals(2, dao.listGames().get(0).game().getPlyCount());
+
+        dao.flush();
+
+        Assertions.assertEquals(2, store.getGame(1).game().getPlyCount());
+        Assertions.assertEquals(new WriteBehindGameDAO.Metrics(1, 0, 1, 1, 0), dao.metrics());
+    }
+
+    @Test
+    @DisplayName("Positive Private Copy Test")
+    public void positivePrivateCopyTest() throws DataAccessException, InvalidMoveException {
+        GameData gameData = dao.getGame(1);
+        dao.updateGame(1, gameData);
+
+        // Changes the caller makes without updating never reach the stored game
+        gameData.game().makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        dao.flush();
+
+        Assertions.assertEquals(0, dao.getGame(1).game().getPlyCount());
+        Assertions.assertEquals(0, store.getGame(1).game().getPlyCount());
+    }
+
+    @Test
+    @DisplayName("Positive Listed Change Written Test")
+    public void positiveListedChangeWrittenTest() throws DataAccessException, InvalidMoveException {
+        dao.createGame(new GameData(2, "them", "us", "another game", new ChessGame()));
+        GameData other = dao.getGame(2);
+        other.game().makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        dao.updateGame(2, other);
+
+        GameData gameData = dao.getGame(1);
+        dao.updateGame(1, new GameData(1, "me", null, "the game", gameData.game()));
+
+        // Only the game whose listing changed is written; the other waits for the next flush
+        Assertions.assertEquals(0, store.getGame(2).game().getPlyCount());
+
+        // Leaving a seat shows up in listings straight away, without waiting for a flush
+        Assertions.assertNull(store.getGame(1).blackUsername());
+        Assertions.assertEquals(1, dao.listGameInfo(new GameQuery(null, 10, "me", true, false)).size());
+        Assertions.assertEquals(0, dao.countGames(new GameQuery(null, 10, null, null, true)));
+    }
+
+    @Test
+    @DisplayName("Positive Update During Eviction Test")
+    public void positiveUpdateDuringEvictionTest() throws Exception {
+        // Nothing may stay in memory unless it is changed, so every flush tries to evict every game
+        WriteBehindGameDAO evicting = new WriteBehindGameDAO(store, 60_000, 0);
+        ChessMove[] shuffle = {
+                ChessMove.of(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null),
+                ChessMove.of(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null),
+                ChessMove.of(ChessPosition.of(3, 6), ChessPosition.of(1, 7), null),
+                ChessMove.of(ChessPosition.of(6, 6), ChessPosition.of(8, 7), null)
+        };
+
+        AtomicBoolean done = new AtomicBoolean();
+        Thread flusher = new Thread(() -> {
+            while (!done.get()) {
+                try {
+                    evicting.flush();
+                } catch (DataAccessException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        flusher.start();
+
+        try {
+            for (int ply = 0; ply < 400; ++ply) {
+                GameData gameData = evicting.getGame(1);
+                gameData.game().makeMove(shuffle[ply % shuffle.length]);
+                evicting.updateGame(1, gameData);
+            }
+        } finally {
+            done.set(true);
+            flusher.join();
+        }
+        evicting.close();
+
+        // An update evicted before it was flagged would have been lost, taking its ply with it
+        Assertions.assertEquals(400, store.getGame(1).game().getPlyCount());
+    }
+
+    @Test
+    @DisplayName("Positive Load During Eviction Test")
+    public void positiveLoadDuringEvictionTest() throws Exception {
+        // A store that is slow to read widens the window between a load and keeping what it read
+        MemoryGameDAO slowStore = new MemoryGameDAO() {
+            @Override
+            public GameData getGame(int gameID) throws DataAccessException {
+                GameData game = super.getGame(gameID);
+                Thread.yield();
+                return game;
+            }
+        };
+        WriteBehindGameDAO evicting = new WriteBehindGameDAO(slowStore, 60_000, 0);
+        evicting.createGame(new GameData(1, "me", "you", "the game", new ChessGame()));
+        ChessMove[] shuffle = {
+                ChessMove.of(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null),
+                ChessMove.of(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null),
+                ChessMove.of(ChessPosition.of(3, 6), ChessPosition.of(1, 7), null),
+                ChessMove.of(ChessPosition.of(6, 6), ChessPosition.of(8, 7), null)
+        };
+
+        AtomicBoolean done = new AtomicBoolean();
+        Thread[] readers = new Thread[4];
+        for (int i = 0; i < readers.length; ++i) {
+            readers[i] = new Thread(() -> {
+                while (!done.get()) {
+                    try {
+                        evicting.getGame(1);
+                    } catch (DataAccessException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            });
+            readers[i].start();
+        }
+
+        try {
+            // Every flush evicts the game, so the readers keep loading it from the store
+            for (int ply = 0; ply < 400; ++ply) {
+                GameData gameData = evicting.getGame(1);
+                gameData.game().makeMove(shuffle[ply % shuffle.length]);
+                evicting.updateGame(1, gameData);
+                evicting.flush();
+            }
+        } finally {
+            done.set(true);
+            for (Thread reader : readers) { reader.join(); }
+        }
+        evicting.close();
+
+        // A stale copy loaded back into memory would have undone a ply, and the next move would be illegal
+        Assertions.assertEquals(400, slowStore.getGame(1).game().getPlyCount());
+    }
+
+    @Test
+    @DisplayName("Negative Update Missing Game Test")
+    public void negativeUpdateMissingGameTest() throws DataAccessException {
+        GameData gameData = new GameData(2, "me", "you", "no game", new ChessGame());
+
+        Assertions.assertThrows(DataAccessException.class, () -> dao.updateGame(2, gameData));
+        Assertions.assertNull(store.getGame(2));
+    }
+}
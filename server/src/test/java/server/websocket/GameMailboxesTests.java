@@ -0,0 +1,113 @@
+package server.websocket;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GameMailboxesTests {
+
+    @Test
+    @DisplayName("Positive Commands In Order Test")
+    public void positiveCommandsInOrderTest() {
+        List<Integer> ran = new ArrayList<>();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+
+        try (GameMailboxes mailboxes = new GameMailboxes()) {
+            for (int i = 0; i < 1000; ++i) {
+                int command = i;
+                mailboxes.submit(1, () -> {
+                    if (running.incrementAndGet() > 1) { overlaps.incrementAndGet(); }
+                    ran.add(command);
+                    running.decrementAndGet();
+                });
+            }
+        }
+
+        // The list isn't thread safe, so any overlap would also show up as lost or reordered commands
+        Assertions.assertEquals(0, overlaps.get());
+        Assertions.assertEquals(1000, ran.size());
+        for (int i = 0; i < ran.size(); ++i) {
+            Assertions.assertEquals(i, ran.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Positive Games In Parallel Test")
+    public void positiveGamesInParallelTest() throws InterruptedException {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+
+        GameMailboxes mailboxes = new GameMailboxes();
+        try {
+            for (int game = 1; game <= 2; ++game) {
+                mailboxes.submit(game, () -> {
+                    bothStarted.countDown();
+                    awaitQuietly(release);
+                });
+            }
+            mailboxes.submit(1, () -> { });
+
+            // Game 1's second command waits behind its first, while game 2 runs alongside it
+            Assertions.assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(1, mailboxes.metrics(1).depth());
+            Assertions.assertEquals(0, mailboxes.metrics(2).processed());
+
+        } finally {
+            release.countDown();
+            mailboxes.close();
+        }
+
+        Assertions.assertEquals(3, mailboxes.totals().processed());
+    }
+
+    @Test
+    @DisplayName("Negative Failed Command Test")
+    public void negativeFailedCommandTest() {
+        AtomicInteger ran = new AtomicInteger();
+        List<String> failures = new ArrayList<>();
+
+        GameMailboxes mailboxes = new GameMailboxes((gameID, e) -> failures.add(gameID + " " + e.getMessage()));
+        mailboxes.submit(1, () -> { throw new IllegalStateException("bad command"); });
+        mailboxes.submit(1, ran::incrementAndGet);
+        mailboxes.close();
+
+        // The failure is reported and doesn't stop later commands
+        Assertions.assertEquals(1, ran.get());
+        Assertions.assertEquals(List.of("1 bad command"), failures);
+        Assertions.assertEquals(2, mailboxes.totals().processed());
+    }
+
+    @Test
+    @DisplayName("Positive Metrics Kept After Empty Test")
+    public void positiveMetricsKeptAfterEmptyTest() throws InterruptedException {
+        GameMailboxes mailboxes = new GameMailboxes();
+        try {
+            for (int i = 0; i < 3; ++i) {
+                CountDownLatch done = new CountDownLatch(1);
+                mailboxes.submit(1, done::countDown);
+                Assertions.assertTrue(done.await(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            mailboxes.close();
+        }
+
+        // The mailbox emptied between commands, but its metrics carried on
+        Assertions.assertEquals(0, mailboxes.metrics(1).depth());
+        Assertions.assertEquals(3, mailboxes.metrics(1).processed());
+        Assertions.assertEquals(3, mailboxes.metrics().get(1).processed());
+        Assertions.assertNull(mailboxes.metrics(2));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package service;
+
+import org.junit.jupiter.api.*;
+
+public class AuthCacheTests {
+
+    private long now;
+
+    @Test
+    @DisplayName("Positive Cached Token Test")
+    public void positiveCachedTokenTest() {
+        AuthCache cache = new AuthCache(10, 1000, () -> now);
+
+        Assertions.assertNull(cache.get("token"));
+        cache.put("token", "name");
+
+        Assertions.assertEquals("name", cache.get("token"));
+        Assertions.assertEquals(new AuthCache.Metrics(1, 1, 1, 0), cache.metrics());
+    }
+
+    @Test
+    @DisplayName("Negative Expired Token Test")
+    public void negativeExpiredTokenTest() {
+        AuthCache cache = new AuthCache(10, 1000, () -> now);
+        cache.put("token", "name");
+
+        now += 1_000_000_000L;
+        Assertions.assertNull(cache.get("token"));
+        Assertions.assertEquals(0, cache.metrics().size());
+    }
+
+    @Test
+    @DisplayName("Negative Invalidated Token Test")
+    public void negativeInvalidatedTokenTest() {
+        AuthCache cache = new AuthCache(10, 1000, () -> now);
+        cache.put("token", "name");
+        cache.put("token2", "name2");
+
+        cache.invalidate("token");
+        Assertions.assertNull(cache.get("token"));
+        Assertions.assertEquals("name2", cache.get("token2"));
+
+        cache.clear();
+        Assertions.assertNull(cache.get("token2"));
+    }
+
+    @Test
+    @DisplayName("Positive Least Recently Used Eviction Test")
+    public void positiveEvictionTest() {
+        AuthCache cache = new AuthCache(2, 1000, () -> now);
+        cache.put("token", "name");
+        cache.put("token2", "name2");
+
+        // Using the first token makes the second the one to go
+        cache.get("token");
+        cache.put("token3", "name3");
+
+        Assertions.assertEquals("name", cache.get("token"));
+        Assertions.assertNull(cache.get("token2"));
+        Assertions.assertEquals(1, cache.metrics().evictions());
+    }
+
+    @Test
+    @DisplayName("Positive Full Cache Test")
+    public void positiveFullCacheTest() {
+        AuthCache cache = new AuthCache(10, 1000, () -> now);
+        for (int i = 0; i < 1000; ++i) { cache.put("token" + i, "name" + i); }
+
+        // Each put past the limit drops just the eldest token
+        Assertions.assertEquals(new AuthCache.Metrics(10, 0, 0, 990), cache.metrics());
+        Assertions.assertNull(cache.get("token989"));
+        Assertions.assertEquals("name990", cache.get("token990"));
+    }
+
+    @Test
+    @DisplayName("Negative Put After Invalidate Test")
+    public void negativePutAfterInvalidateTest() {
+        AuthCache cache = new AuthCache(10, 1000, () -> now);
+
+        // A token read from the database, then logged out before the read's result is cached
+        long generation = cache.generation();
+        cache.invalidate("token");
+
+        Assertions.assertFalse(cache.put("token", "name", generation));
+        Assertions.assertNull(cache.get("token"));
+        Assertions.assertTrue(cache.put("token", "name", cache.generation()));
+    }
+}
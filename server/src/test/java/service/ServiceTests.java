@@ -178,6 +178,48 @@ public class ServiceTests {
         Assertions.assertThrows(DataAccessException.class, () -> gameService.list(listRequest));
     }
 
+    @Test
+    @DisplayName("Positive List Page Test")
+    public void positiveListPageTest() throws DataAccessException {
+        GameService gameService = new GameService();
+
+        gameService.create(new CreateRequest("First"));
+        gameService.create(new CreateRequest("Second"));
+        gameService.create(new CreateRequest("Third"));
+
+        ListResult first = gameService.list(new ListRequest("token", null, 2, null, true, null));
+        ListResult second = gameService.list(new ListRequest("token", first.nextCursor(), 2, null, true, null));
+
+        Assertions.assertEquals(2, first.games().size());
+        Assertions.assertEquals(3, first.total());
+        Assertions.assertEquals("Third", second.games().getFirst().gameName());
+        Assertions.assertNull(second.nextCursor());
+        Assertions.assertNull(second.total());
+        Assertions.assertThrows(DataAccessException.class, () -> gameService.list(new ListRequest("token", null, 0, null, null, null)));
+    }
+
+    @Test
+    @DisplayName("Positive Get Game Test")
+    public void positiveGetGameTest() throws DataAccessException {
+        GameService gameService = new GameService();
+
+        CreateResult createResult = gameService.create(new CreateRequest("Thwart Me."));
+
+        Assertions.assertEquals("Thwart Me.", gameService.getGame(createResult.gameID()).gameName());
+        Assertions.assertTrue(gameService.exists(createResult.gameID()));
+        Assertions.assertEquals(1, gameService.count());
+    }
+
+    @Test
+    @DisplayName("Negative Get Game Test")
+    public void negativeGetGameTest() throws DataAccessException {
+        GameService gameService = new GameService();
+
+        Assertions.assertThrows(DataAccessException.class, () -> gameService.getGame(1234567890));
+        Assertions.assertFalse(gameService.exists(1234567890));
+        Assertions.assertEquals(0, gameService.count());
+    }
+
     @Test
     @DisplayName("Positive Join Test")
     public void positiveJoinTest() throws DataAccessException {
@@ -0,0 +1,307 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Precomputed attack tables and square helpers for the bitboard board engine.
+ * <p>
+ * Squares are indexed 0-63 starting at a1 (row 1, column 1) and moving across
+ * each row, so a square's index is (row - 1) * 8 + (column - 1). Sliding pieces
+ * use magic bitboards: the relevant blockers of a square are multiplied by a magic
+ * number to produce a perfect hash into a table of precomputed attack sets.
+ */
+final class Bitboards {
+
+    private static final int[][] KNIGHT_JUMPS = {
+            {1,2},{1,-2},{-1,2},{-1,-2},{2,1},{2,-1},{-2,1},{-2,-1}
+    };
+    private static final int[][] KING_STEPS = {
+            {-1,-1},{-1,0},{-1,1},{0,-1},{0,1},{1,-1},{1,0},{1,1}
+    };
+    private static final int[][] ROOK_DIRECTIONS = {
+            {1,0},{-1,0},{0,1},{0,-1}
+    };
+    private static final int[][] BISHOP_DIRECTIONS = {
+            {1,1},{-1,1},{-1,-1},{1,-1}
+    };
+
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] ROOK_MAGICS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final int[] ROOK_OFFSETS = new int[64];
+    private static final long[] ROOK_TABLE;
+
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final long[] BISHOP_MAGICS = new long[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final int[] BISHOP_OFFSETS = new int[64];
+    private static final long[] BISHOP_TABLE;
+
+    // For each pair of squares on a shared row, column or diagonal: the squares strictly between
+    // them, and the whole line through them. Both are 0 for squares that don't line up.
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        for (int square = 0; square < 64; ++square) {
+            KNIGHT_ATTACKS[square] = stepAttacks(square, KNIGHT_JUMPS);
+            KING_ATTACKS[square] = stepAttacks(square, KING_STEPS);
+            PAWN_ATTACKS[0][square] = stepAttacks(square, new int[][]{{1,-1},{1,1}});
+            PAWN_ATTACKS[1][square] = stepAttacks(square, new int[][]{{-1,-1},{-1,1}});
+        }
+
+        // A fixed seed keeps the magic numbers (and so the table layout) identical on every run
+        SplittableRandom random = new SplittableRandom(0x5EED_C240L);
+        ROOK_TABLE = initMagics(ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_OFFSETS, random);
+        BISHOP_TABLE = initMagics(BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_OFFSETS, random);
+
+        for (int from = 0; from < 64; ++from) {
+            for (int to = 0; to < 64; ++to) {
+                long ends = (1L << from) | (1L << to);
+
+                if (from != to && (rookAttacks(from, 0L) & (1L << to)) != 0) {
+                    BETWEEN[from][to] = rookAttacks(from, 1L << to) & rookAttacks(to, 1L << from);
+                    LINE[from][to] = (rookAttacks(from, 0L) & rookAttacks(to, 0L)) | ends;
+                } else if (from != to && (bishopAttacks(from, 0L) & (1L << to)) != 0) {
+                    BETWEEN[from][to] = bishopAttacks(from, 1L << to) & bishopAttacks(to, 1L << from);
+                    LINE[from][to] = (bishopAttacks(from, 0L) & bishopAttacks(to, 0L)) | ends;
+                }
+            }
+        }
+    }
+
+    private Bitboards() {
+
+    }
+
+    /**
+     * @return the square index of a row and column, both starting at 1
+     */
+    static int square(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    /**
+     * @return the square index of a position
+     */
+    static int square(ChessPosition position) {
+        return square(position.getRow(), position.getColumn());
+    }
+
+    /**
+     * @return which row the square is in, 1 codes for the bottom row
+     */
+    static int row(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    /**
+     * @return which column the square is in, 1 codes for the left column
+     */
+    static int column(int square) {
+        return (square & 7) + 1;
+    }
+
+    /**
+     * @return the shared position of the square index
+     */
+    static ChessPosition position(int square) {
+        return ChessPosition.of(square);
+    }
+
+    /**
+     * @return the index of a team's bitboards (0 for white, 1 for black)
+     */
+    static int side(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? 0 : 1;
+    }
+
+    /**
+     * @return bitboard of every square in the row, 1 codes for the bottom row
+     */
+    static long rankMask(int row) {
+        return 0xFFL << (8 * (row - 1));
+    }
+
+    static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * @return the squares a pawn of the given color attacks diagonally from the square
+     */
+    static long pawnAttacks(ChessGame.TeamColor color, int square) {
+        return PAWN_ATTACKS[side(color)][square];
+    }
+
+    static long rookAttacks(int square, long occupied) {
+        int index = (int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square]);
+        return ROOK_TABLE[ROOK_OFFSETS[square] + index];
+    }
+
+    static long bishopAttacks(int square, long occupied) {
+        int index = (int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square]);
+        return BISHOP_TABLE[BISHOP_OFFSETS[square] + index];
+    }
+
+    static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    /**
+     * @return bitboard of the squares strictly between two squares on a shared line, or 0 if they don't line up
+     */
+    static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * @return bitboard of the whole row, column or diagonal through two squares, or 0 if they don't line up
+     */
+    static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    /**
+     * Finds every square a piece attacks, regardless of what occupies those squares
+     *
+     * @param type the type of the attacking piece
+     * @param color the color of the attacking piece
+     * @param square where the attacking piece stands
+     * @param occupied every occupied square on the board, used to block sliding pieces
+     * @return bitboard of the attacked squares
+     */
+    static long attacks(ChessPiece.PieceType type, ChessGame.TeamColor color, int square, long occupied) {
+        return switch (type) {
+            case KING -> kingAttacks(square);
+            case QUEEN -> queenAttacks(square, occupied);
+            case BISHOP -> bishopAttacks(square, occupied);
+            case KNIGHT -> knightAttacks(square);
+            case ROOK -> rookAttacks(square, occupied);
+            case PAWN -> pawnAttacks(color, square);
+        };
+    }
+
+    private static long stepAttacks(int square, int[][] steps) {
+        long attacks = 0L;
+
+        for (int[] step : steps) {
+            int row = row(square) + step[0];
+            int col = column(square) + step[1];
+
+            if (row >= 1 && row <= 8 && col >= 1 && col <= 8) {
+                attacks |= 1L << square(row, col);
+            }
+        }
+
+        return attacks;
+    }
+
+    /**
+     * Walks each ray from the square until it leaves the board or hits a blocker (which is included)
+     */
+    private static long slidingAttacks(int square, long occupied, int[][] directions) {
+        long attacks = 0L;
+
+        for (int[] direction : directions) {
+            int row = row(square) + direction[0];
+            int col = column(square) + direction[1];
+
+            while (row >= 1 && row <= 8 && col >= 1 && col <= 8) {
+                long bit = 1L << square(row, col);
+                attacks |= bit;
+                if ((occupied & bit) != 0) { break; }
+
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+
+        return attacks;
+    }
+
+    /**
+     * Finds the squares whose occupancy can change a slider's attacks. The last square of each
+     * ray is left out because it is attacked whether or not something stands on it.
+     */
+    private static long relevantBlockers(int square, int[][] directions) {
+        long mask = 0L;
+
+        for (int[] direction : directions) {
+            int row = row(square) + direction[0];
+            int col = column(square) + direction[1];
+
+            while (row + direction[0] >= 1 && row + direction[0] <= 8 && col + direction[1] >= 1 && col + direction[1] <= 8) {
+                mask |= 1L << square(row, col);
+
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+
+        return mask;
+    }
+
+    private static long[] initMagics(int[][] directions, long[] masks, long[] magics, int[] shifts, int[] offsets,
+                                     SplittableRandom random) {
+        // Size the shared table so every square gets 2^(relevant blockers) entries
+        int size = 0;
+        for (int square = 0; square < 64; ++square) {
+            masks[square] = relevantBlockers(square, directions);
+            shifts[square] = 64 - Long.bitCount(masks[square]);
+            offsets[square] = size;
+            size += 1 << Long.bitCount(masks[square]);
+        }
+
+        long[] table = new long[size];
+        for (int square = 0; square < 64; ++square) {
+            magics[square] = findMagic(square, directions, masks[square], shifts[square], offsets[square], table, random);
+        }
+
+        return table;
+    }
+
+    private static long findMagic(int square, int[][] directions, long mask, int shift, int offset, long[] table,
+                                  SplittableRandom random) {
+        int count = 1 << Long.bitCount(mask);
+        long[] blockers = new long[count];
+        long[] attacks = new long[count];
+
+        // Enumerate every subset of the mask (Carry-Rippler) along with its true attack set
+        long subset = 0L;
+        for (int i = 0; i < count; ++i) {
+            blockers[i] = subset;
+            attacks[i] = slidingAttacks(square, subset, directions);
+            subset = (subset - mask) & mask;
+        }
+
+        int[] attempts = new int[count];
+        for (int attempt = 1; ; ++attempt) {
+            // Sparse candidates are far more likely to hash without collisions
+            long magic = random.nextLong() & random.nextLong() & random.nextLong();
+            if (Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6) { continue; }
+
+            boolean collision = false;
+            for (int i = 0; i < count && !collision; ++i) {
+                int index = (int) ((blockers[i] * magic) >>> shift);
+
+                if (attempts[index] != attempt) {
+                    attempts[index] = attempt;
+                    table[offset + index] = attacks[i];
+                } else if (table[offset + index] != attacks[i]) {
+                    collision = true;
+                }
+            }
+
+            if (!collision) { return magic; }
+        }
+    }
+}
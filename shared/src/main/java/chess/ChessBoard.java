@@ -1,8 +1,7 @@
 package chess;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Objects;
+import java.util.Arrays;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
@@ -14,6 +13,27 @@ public class ChessBoard {
 
     private ChessPiece[][] squares = new ChessPiece[8][8];
 
+    // One bitboard per team and piece type (team * 6 + type), followed by each team's occupancy
+    private static final int WHITE_OCCUPANCY = 12;
+    private static final int BLACK_OCCUPANCY = 13;
+    private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+
+    // The bitboards mirror squares and are not serialized. They are rebuilt whenever squares
+    // is swapped out from underneath them, e.g. when Gson fills in a deserialized board.
+    private transient long[] bitboards;
+    private transient ChessPiece[][] indexedSquares;
+
+    // Zobrist key of the piece placement, updated along with the bitboards
+    private transient long positionKey;
+
+    // Counts changes to the pieces and their castling and en passant flags, so cached attack maps
+    // and game state know when they are out of date
+    private transient int modifications;
+
+    // Every square each team attacks, indexed by Bitboards.side, and the modification count they were built at
+    private transient long[] attackMaps;
+    private transient int[] attackMapVersions;
+
     public ChessBoard() {
         
     }
@@ -25,18 +45,17 @@ public class ChessBoard {
      */
     @Override
     public int hashCode() {
-        int code = 0;
-
-        // Loop through every square on the board
-        for (int i = 0; i < squares.length; ++i) {
-            for (int j = 0; j < squares[i].length; ++j) {
-                // If the square contains a piece, add to the hash code based on the code of the piece
-                // and the coordinate. If it is null, add a hash code based just on the coordinate.
-                code += (squares[i][j] != null ? squares[i][j].hashCode() : 71 ) * (i + 1) * (j + 1);
-            }
-        }
+        return Long.hashCode(positionKey());
+    }
 
-        return code;
+    /**
+     * Gets the Zobrist key of the piece placement. Boards that are equal have the same key.
+     *
+     * @return 64-bit key of which pieces stand on which squares
+     */
+    public long positionKey() {
+        bitboards();
+        return positionKey;
     }
 
     /**
@@ -51,31 +70,8 @@ public class ChessBoard {
         if (obj == null || getClass() != obj.getClass()) { return false; }
         ChessBoard that = (ChessBoard) obj;
 
-        // Check if all pieces are the same
-        for (int i = 0; i < squares.length; ++i) {
-            for (int j = 0; j < squares[i].length; ++j) {
-                // Get piece we want to compare with
-                ChessPiece thatPiece = that.getPiece(new ChessPosition(i+1,j+1));
-
-                // If one piece is null and the other isn't, return false;
-                if ((squares[i][j] == null && thatPiece != null) || (squares[i][j] != null && thatPiece == null)) {
-                    return false;
-                }
-
-                // If both pieces are null, no need to compare pieces
-                if (squares[i][j] == null && thatPiece == null) {
-                    continue;
-                }
-
-                // If both pieces are not null, return false if they are not the same piece
-                if (!squares[i][j].equals(thatPiece)) {
-                    return false;
-                }
-            }
-        }
-
-        // Returns true when no differences were detected
-        return true;
+        // Boards are identical when every team and piece type occupies the same squares
+        return Arrays.equals(bitboards(), that.bitboards());
     }
 
     /**
@@ -126,7 +122,27 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        squares[position.getRow()-1][position.getColumn()-1] = piece;
+        addPiece(Bitboards.square(position), piece);
+    }
+
+    /**
+     * Adds a chess piece to the chessboard by square index
+     *
+     * @param square where to add the piece to (0 is a1, 63 is h8)
+     * @param piece  the piece to add
+     */
+    void addPiece(int square, ChessPiece piece) {
+        // Clear the bits of any piece being replaced before adding the new one
+        removePiece(square);
+        squares[square >>> 3][square & 7] = piece;
+        ++modifications;
+
+        if (piece != null) {
+            long bit = 1L << square;
+            bitboards[bitboardIndex(piece.getTeamColor(), piece.getPieceType())] |= bit;
+            bitboards[occupancyIndex(piece.getTeamColor())] |= bit;
+            positionKey ^= Zobrist.piece(piece.getTeamColor(), piece.getPieceType(), square);
+        }
     }
 
     /**
@@ -135,7 +151,27 @@ public class ChessBoard {
      * @param position where to remove the piece from
      */
     public void removePiece(ChessPosition position) {
-        squares[position.getRow()-1][position.getColumn()-1] = null;
+        removePiece(Bitboards.square(position));
+    }
+
+    /**
+     * Removes a chess piece from the chessboard by square index
+     *
+     * @param square where to remove the piece from (0 is a1, 63 is h8)
+     */
+    void removePiece(int square) {
+        long[] boards = bitboards();
+        ChessPiece piece = squares[square >>> 3][square & 7];
+
+        if (piece != null) {
+            long bit = 1L << square;
+            boards[bitboardIndex(piece.getTeamColor(), piece.getPieceType())] &= ~bit;
+            boards[occupancyIndex(piece.getTeamColor())] &= ~bit;
+            positionKey ^= Zobrist.piece(piece.getTeamColor(), piece.getPieceType(), square);
+        }
+
+        squares[square >>> 3][square & 7] = null;
+        ++modifications;
     }
 
     /**
@@ -149,6 +185,68 @@ public class ChessBoard {
         return squares[position.getRow()-1][position.getColumn()-1];
     }
 
+    /**
+     * Gets a chess piece on the chessboard by square index
+     *
+     * @param square The square index (0 is a1, 63 is h8)
+     * @return Either the piece on the square, or null if it is empty
+     */
+    ChessPiece getPiece(int square) {
+        return squares[square >>> 3][square & 7];
+    }
+
+    /**
+     * @return bitboard of every square holding a piece of the given team and type
+     */
+    long pieces(ChessGame.TeamColor teamColor, ChessPiece.PieceType type) {
+        return bitboards()[bitboardIndex(teamColor, type)];
+    }
+
+    /**
+     * @return bitboard of every square holding a piece of the given team
+     */
+    long pieces(ChessGame.TeamColor teamColor) {
+        return bitboards()[occupancyIndex(teamColor)];
+    }
+
+    /**
+     * @return bitboard of every occupied square
+     */
+    long occupied() {
+        return bitboards()[WHITE_OCCUPANCY] | bitboards[BLACK_OCCUPANCY];
+    }
+
+    /**
+     * @return a count that changes whenever a piece is added or removed, for caching anything derived from the board
+     */
+    int modifications() {
+        bitboards();
+        return modifications;
+    }
+
+    /**
+     * Creates a board from the piece placement part of a FEN string, e.g.
+     * "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR". Anything after the placement is ignored.
+     *
+     * @param fen the placement to read
+     * @return a new board with those pieces
+     * @throws IllegalArgumentException if the placement is not valid
+     */
+    public static ChessBoard fromFen(String fen) {
+        ChessBoard board = new ChessBoard();
+        Fen.readPlacement(fen, board);
+        return board;
+    }
+
+    /**
+     * @return the piece placement part of a FEN string for this board
+     */
+    public String toFen() {
+        StringBuilder fen = new StringBuilder(72);
+        Fen.writePlacement(this, fen);
+        return fen.toString();
+    }
+
     /**
      * Sets the board to be a copy of the new board
      *
@@ -158,16 +256,13 @@ public class ChessBoard {
         squares = new ChessPiece[8][8];
 
         // Copy all of the piece from a new board
-        for (int i = 0; i < squares.length; ++i) {
-            for (int j = 0; j < squares[i].length; ++j) {
-                ChessPosition pos = new ChessPosition(i + 1, j + 1);
-
-                if(newBoard.getPiece(pos) == null) { continue; }
-
-                ChessPiece newPiece = new ChessPiece(newBoard.getPiece(pos).getTeamColor(), newBoard.getPiece(pos).getPieceType());
+        long pieces = newBoard.occupied();
+        while (pieces != 0) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
 
-                addPiece(pos, newPiece);
-            }
+            ChessPiece piece = newBoard.getPiece(square);
+            addPiece(Bitboards.position(square), new ChessPiece(piece.getTeamColor(), piece.getPieceType()));
         }
 
     }
@@ -183,7 +278,7 @@ public class ChessBoard {
             ChessPiece newPawn = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
 
             // Add the Pawn to the board
-            addPiece(new ChessPosition(2, i + 1), newPawn);
+            addPiece(ChessPosition.of(2, i + 1), newPawn);
         }
 
         // Add all Black Pawns
@@ -192,7 +287,7 @@ public class ChessBoard {
             ChessPiece newPawn = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
 
             // Add the Pawn to the board
-            addPiece(new ChessPosition(7, i + 1), newPawn);
+            addPiece(ChessPosition.of(7, i + 1), newPawn);
         }
 
         ChessPiece.PieceType[] backRank = {ChessPiece.PieceType.ROOK, ChessPiece.PieceType.KNIGHT,
@@ -202,13 +297,13 @@ public class ChessBoard {
         // Set up White's back rank
         for (int i = 0; i < backRank.length; ++i) {
             ChessPiece newPiece = new ChessPiece(ChessGame.TeamColor.WHITE, backRank[i]);
-            addPiece(new ChessPosition(1, i + 1), newPiece);
+            addPiece(ChessPosition.of(1, i + 1), newPiece);
         }
 
         // Set up Black's back rank
         for (int i = 0; i < backRank.length; ++i) {
             ChessPiece newPiece = new ChessPiece(ChessGame.TeamColor.BLACK, backRank[i]);
-            addPiece(new ChessPosition(8, i + 1), newPiece);
+            addPiece(ChessPosition.of(8, i + 1), newPiece);
         }
     }
 
@@ -219,27 +314,17 @@ public class ChessBoard {
      * @return the position of the found king (null if it is not found)
      */
     public ChessPosition findKing(ChessGame.TeamColor teamColor) {
-        for (int i = 0; i < squares.length; ++i) {
-            for (int j = 0; j < squares[i].length; ++j) {
-                ChessPiece piece = getPiece(new ChessPosition(i+1,j+1));
-                if (piece != null && piece.getTeamColor() == teamColor && piece.getPieceType() == ChessPiece.PieceType.KING) {
-                    return new ChessPosition(i + 1,j + 1);
-                }
-            }
-        }
-        return null;
+        long king = pieces(teamColor, ChessPiece.PieceType.KING);
+        return king == 0 ? null : Bitboards.position(Long.numberOfTrailingZeros(king));
     }
 
     public ArrayList<ChessPosition> findAllPieces(ChessGame.TeamColor teamColor) {
         ArrayList<ChessPosition> positions = new ArrayList<>();
 
-        for (int i = 0; i < squares.length; ++i) {
-            for (int j = 0; j < squares[i].length; ++j) {
-                ChessPiece piece = getPiece(new ChessPosition(i+1,j+1));
-                if (piece != null && piece.getTeamColor() == teamColor) {
-                    positions.add(new ChessPosition(i + 1,j + 1));
-                }
-            }
+        long pieces = pieces(teamColor);
+        while (pieces != 0) {
+            positions.add(Bitboards.position(Long.numberOfTrailingZeros(pieces)));
+            pieces &= pieces - 1;
         }
 
         return positions;
@@ -253,39 +338,180 @@ public class ChessBoard {
      * @return whether the position is attacked
      */
     public boolean positionIsAttacked(ChessPosition position, ChessGame.TeamColor attackingTeam) {
-        // Find all the pieces of the attacking team
-        ArrayList<ChessPosition> pieces = findAllPieces(attackingTeam);
-
-        // Loop through each piece's moves to determine if the position is attacked
-        for (int i = 0; i < pieces.size(); ++i){
-            ChessPosition currentPosition = pieces.get(i);
-            ChessPiece piece = getPiece(currentPosition);
-
-            // If the piece exists and is the attacking team, find its moves.
-            if (piece != null && piece.getTeamColor() == attackingTeam) {
-                ArrayList<ChessMove> pieceMoves = (ArrayList<ChessMove>) piece.pieceMoves(this, currentPosition);
-
-                // Loop through all of this piece's moves. If it's end position is my position, we are attacked
-                for (int k = 0; k < pieceMoves.size(); k++) {
-                    if (position.equals(pieceMoves.get(k).getEndPosition())) {
-                        return true;
-                    }
+        return squareIsAttacked(Bitboards.square(position), attackingTeam);
+    }
+
+    /**
+     * Checks whether the square is attacked by the opposing team
+     *
+     * @param square the square we want to check for attacks (0 is a1, 63 is h8)
+     * @param attackingTeam the color of the attacking team
+     * @return whether the square is attacked
+     */
+    boolean squareIsAttacked(int square, ChessGame.TeamColor attackingTeam) {
+        return attackersOf(square, attackingTeam, occupied()) != 0;
+    }
+
+    /**
+     * Finds the pieces attacking a square by looking outward from it: a knight attacks the square
+     * if a knight jump away, a slider if it is the first piece along a ray, and so on. This only
+     * needs one table lookup per kind of piece, however many pieces the attacking team has.
+     *
+     * @param square the square being attacked (0 is a1, 63 is h8)
+     * @param attackingTeam the color of the attacking team
+     * @param occupied the occupied squares, which block the sliding pieces
+     * @return bitboard of the attacking pieces
+     */
+    long attackersOf(int square, ChessGame.TeamColor attackingTeam, long occupied) {
+        ChessGame.TeamColor defendingTeam = attackingTeam == ChessGame.TeamColor.WHITE ?
+                ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        long queens = pieces(attackingTeam, ChessPiece.PieceType.QUEEN);
+
+        // A pawn attacks the square if a defending pawn on the square would attack it back
+        return (Bitboards.pawnAttacks(defendingTeam, square) & pieces(attackingTeam, ChessPiece.PieceType.PAWN)) |
+                (Bitboards.knightAttacks(square) & pieces(attackingTeam, ChessPiece.PieceType.KNIGHT)) |
+                (Bitboards.kingAttacks(square) & pieces(attackingTeam, ChessPiece.PieceType.KING)) |
+                (Bitboards.rookAttacks(square, occupied) & (pieces(attackingTeam, ChessPiece.PieceType.ROOK) | queens)) |
+                (Bitboards.bishopAttacks(square, occupied) & (pieces(attackingTeam, ChessPiece.PieceType.BISHOP) | queens));
+    }
+
+    /**
+     * Finds the opposing pieces giving check to a team's king
+     *
+     * @param teamColor the color of the king
+     * @return bitboard of the checking pieces (0 if the team has no king)
+     */
+    long checkers(ChessGame.TeamColor teamColor) {
+        long king = pieces(teamColor, ChessPiece.PieceType.KING);
+        if (king == 0) { return 0; }
+
+        ChessGame.TeamColor opposingTeam = teamColor == ChessGame.TeamColor.WHITE ?
+                ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        return attackersOf(Long.numberOfTrailingZeros(king), opposingTeam, occupied());
+    }
+
+    /**
+     * Gets every square a team attacks. The map is built on first use and kept until a piece
+     * is added or removed, so repeated lookups on the same position are a single bit test.
+     *
+     * @param attackingTeam the color of the attacking team
+     * @return bitboard of the attacked squares
+     */
+    long attackMap(ChessGame.TeamColor attackingTeam) {
+        long[] boards = bitboards();
+        int side = Bitboards.side(attackingTeam);
+
+        if (attackMaps == null) {
+            attackMaps = new long[2];
+            attackMapVersions = new int[]{-1, -1};
+        }
+
+        if (attackMapVersions[side] != modifications) {
+            long occupied = boards[WHITE_OCCUPANCY] | boards[BLACK_OCCUPANCY];
+            long attacks = 0L;
+
+            // Every piece type shares one attack function, so walk each type's bitboard
+            for (ChessPiece.PieceType type : PIECE_TYPES) {
+                long attackers = boards[bitboardIndex(attackingTeam, type)];
+                while (attackers != 0) {
+                    attacks |= Bitboards.attacks(type, attackingTeam, Long.numberOfTrailingZeros(attackers), occupied);
+                    attackers &= attackers - 1;
                 }
             }
+
+            attackMaps[side] = attacks;
+            attackMapVersions[side] = modifications;
         }
 
-        return false;
+        return attackMaps[side];
+    }
+
+    /**
+     * Checks whether a team's king is attacked by the other team
+     *
+     * @param teamColor the color of the king
+     * @return whether the king is attacked (false if the team has no king)
+     */
+    boolean kingIsAttacked(ChessGame.TeamColor teamColor) {
+        return checkers(teamColor) != 0;
+    }
+
+    /**
+     * Marks the king and a corner rook of a row as unmoved, so the king may castle with that rook
+     *
+     * @param row the row of the king and rook
+     * @param rookColumn the column of the rook, 1 or 8
+     */
+    void allowCastling(int row, int rookColumn) {
+        ChessPiece king = getPiece(Bitboards.square(row, 5));
+        ChessPiece rook = getPiece(Bitboards.square(row, rookColumn));
+
+        if (king != null && king.getPieceType() == ChessPiece.PieceType.KING) { king.setMoved(false); }
+        if (rook != null && rook.getPieceType() == ChessPiece.PieceType.ROOK) { rook.setMoved(false); }
+        ++modifications;
     }
 
     /**
      * Sets all pieces to not be en passantable
      */
     public void resetEnPassant() {
-        for (int i = 0; i < squares.length; ++i) {
-            for (int j = 0; j < squares[i].length; ++j) {
-                if (getPiece(new ChessPosition(i + 1, j + 1)) == null) { continue; }
-                getPiece(new ChessPosition(i + 1, j + 1)).setEnPassantable(false);
+        long pawns = pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN) |
+                pieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
+
+        while (pawns != 0) {
+            getPiece(Long.numberOfTrailingZeros(pawns)).setEnPassantable(false);
+            pawns &= pawns - 1;
+        }
+        ++modifications;
+    }
+
+    /**
+     * Finds the pawn that may currently be captured en passant
+     *
+     * @return the square of the en passantable pawn, or -1 if there is none
+     */
+    int findEnPassantSquare() {
+        long pawns = pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN) |
+                pieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
+
+        while (pawns != 0) {
+            int square = Long.numberOfTrailingZeros(pawns);
+            if (getPiece(square).isEnPassantable()) { return square; }
+            pawns &= pawns - 1;
+        }
+
+        return -1;
+    }
+
+    private static int bitboardIndex(ChessGame.TeamColor teamColor, ChessPiece.PieceType type) {
+        return Bitboards.side(teamColor) * 6 + type.ordinal();
+    }
+
+    private static int occupancyIndex(ChessGame.TeamColor teamColor) {
+        return teamColor == ChessGame.TeamColor.WHITE ? WHITE_OCCUPANCY : BLACK_OCCUPANCY;
+    }
+
+    /**
+     * @return the bitboards, rebuilding them first if squares was replaced since they were built
+     */
+    private long[] bitboards() {
+        if (indexedSquares != squares) {
+            bitboards = new long[14];
+            positionKey = 0L;
+
+            for (int square = 0; square < 64; ++square) {
+                ChessPiece piece = getPiece(square);
+                if (piece == null) { continue; }
+
+                bitboards[bitboardIndex(piece.getTeamColor(), piece.getPieceType())] |= 1L << square;
+                bitboards[occupancyIndex(piece.getTeamColor())] |= 1L << square;
+                positionKey ^= Zobrist.piece(piece.getTeamColor(), piece.getPieceType(), square);
             }
+
+            indexedSquares = squares;
+            ++modifications;
         }
+
+        return bitboards;
     }
 }
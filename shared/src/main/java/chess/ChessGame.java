@@ -1,8 +1,9 @@
 package chess;
 
-import java.util.ArrayList;
+import com.google.gson.annotations.JsonAdapter;
+
 import java.util.Collection;
-import java.util.Objects;
+import java.util.List;
 
 /**
  * For a class that can manage a chess game, making moves on a board
@@ -10,12 +11,47 @@ import java.util.Objects;
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(GameCodec.GsonAdapter.class)
 public class ChessGame {
 
     private ChessBoard board;
     private TeamColor teamTurn;
     private boolean finished;
 
+    // Moves since the last capture or pawn move, and the number of the current full move
+    private int halfmoveClock;
+    private int fullmoveNumber;
+
+    // Every move made so far, so moves can be taken back and replayed
+    private transient MoveHistory history = new MoveHistory();
+
+    // Reused by move generation so validating moves doesn't allocate a new list each time
+    private transient MoveList moveBuffer;
+
+    // The status of the team to move, kept until the board changes or the turn passes
+    private transient GameStatus status;
+    private transient int statusModifications;
+    private transient TeamColor statusTurn;
+
+    // The castling rights and en passant pawn square, kept up to date by applyMove and unmakeMove so
+    // the position key doesn't scan for them. Worked out again if the board was changed some other way
+    private transient int castling;
+    private transient int enPassantSquare;
+    private transient int keyStateModifications;
+    private transient boolean keyStateValid;
+
+    // The castling rights lost when a piece moves from or to each square
+    private static final int[] CASTLING_LOST = new int[64];
+
+    static {
+        CASTLING_LOST[Bitboards.square(1, 5)] = Zobrist.WHITE_KINGSIDE | Zobrist.WHITE_QUEENSIDE;
+        CASTLING_LOST[Bitboards.square(1, 8)] = Zobrist.WHITE_KINGSIDE;
+        CASTLING_LOST[Bitboards.square(1, 1)] = Zobrist.WHITE_QUEENSIDE;
+        CASTLING_LOST[Bitboards.square(8, 5)] = Zobrist.BLACK_KINGSIDE | Zobrist.BLACK_QUEENSIDE;
+        CASTLING_LOST[Bitboards.square(8, 8)] = Zobrist.BLACK_KINGSIDE;
+        CASTLING_LOST[Bitboards.square(8, 1)] = Zobrist.BLACK_QUEENSIDE;
+    }
+
     public ChessGame() {
         board = new ChessBoard();
         board.resetBoard();
@@ -23,11 +59,139 @@ public class ChessGame {
         finished = false;
 
         teamTurn = TeamColor.WHITE;
+
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+    }
+
+    /**
+     * Creates an independent copy of a game. Pieces are copied along with their moved and
+     * en passant flags, so the copy has the same castling and en passant options.
+     *
+     * @param other the game to copy
+     */
+    public ChessGame(ChessGame other) {
+        board = new ChessBoard();
+
+        long pieces = other.board.occupied();
+        while (pieces != 0) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+
+            board.addPiece(Bitboards.position(square), new ChessPiece(other.board.getPiece(square)));
+        }
+
+        finished = other.finished;
+        teamTurn = other.teamTurn;
+        halfmoveClock = other.halfmoveClock;
+        fullmoveNumber = other.fullmoveNumber;
+        history = new MoveHistory(other.history);
+    }
+
+    /**
+     * Creates a game from a position in Forsyth-Edwards Notation, e.g.
+     * "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1". Everything after the side
+     * to move is optional.
+     *
+     * @param fen the position to read
+     * @return a new game in that position
+     * @throws IllegalArgumentException if the string is not valid FEN
+     */
+    public static ChessGame fromFen(String fen) {
+        return Fen.parse(fen);
+    }
+
+    /**
+     * @return the position in Forsyth-Edwards Notation
+     */
+    public String toFen() {
+        return Fen.write(this);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(board, teamTurn);
+        // Only hash what equals compares: the board and whose turn it is
+        return Long.hashCode(board.positionKey() ^ Zobrist.side(teamTurn));
+    }
+
+    /**
+     * Gets the Zobrist key of the position, made up of the piece placement, whose turn
+     * it is, the castling rights, and the en passant column. The piece placement part is
+     * kept up to date as pieces are added and removed, and the castling and en passant
+     * parts as moves are made and taken back, so this does not scan the board.
+     *
+     * @return 64-bit key identifying the position
+     */
+    public long positionKey() {
+        ensureKeyState();
+        return board.positionKey() ^ Zobrist.side(teamTurn) ^ Zobrist.castling(castling) ^
+                Zobrist.enPassant(enPassantColumn(enPassantSquare));
+    }
+
+    /**
+     * Works out the castling rights and en passant pawn from the board, unless they were
+     * kept up to date since the board last changed
+     */
+    private void ensureKeyState() {
+        int modifications = board.modifications();
+        if (keyStateValid && keyStateModifications == modifications) { return; }
+
+        castling = castlingRights();
+        enPassantSquare = board.findEnPassantSquare();
+        keyStateModifications = modifications;
+        keyStateValid = true;
+    }
+
+    /**
+     * Finds which castling moves are still possible in the future, based on whether the
+     * kings and corner rooks have moved
+     *
+     * @return bits of Zobrist.WHITE_KINGSIDE, WHITE_QUEENSIDE, BLACK_KINGSIDE and BLACK_QUEENSIDE
+     */
+    int castlingRights() {
+        return castlingRights(TeamColor.WHITE, 1, Zobrist.WHITE_KINGSIDE, Zobrist.WHITE_QUEENSIDE) |
+                castlingRights(TeamColor.BLACK, 8, Zobrist.BLACK_KINGSIDE, Zobrist.BLACK_QUEENSIDE);
+    }
+
+    private int castlingRights(TeamColor teamColor, int row, int kingSide, int queenSide) {
+        ChessPiece king = board.getPiece(Bitboards.square(row, 5));
+        if (king == null || king.ifMoved() || king.getTeamColor() != teamColor ||
+                king.getPieceType() != ChessPiece.PieceType.KING) {
+            return 0;
+        }
+
+        ChessPiece kingRook = board.getPiece(Bitboards.square(row, 8));
+        ChessPiece queenRook = board.getPiece(Bitboards.square(row, 1));
+
+        return (isUnmovedRook(kingRook, teamColor) ? kingSide : 0) | (isUnmovedRook(queenRook, teamColor) ? queenSide : 0);
+    }
+
+    private static boolean isUnmovedRook(ChessPiece piece, TeamColor teamColor) {
+        return piece != null && !piece.ifMoved() && piece.getTeamColor() == teamColor &&
+                piece.getPieceType() == ChessPiece.PieceType.ROOK;
+    }
+
+    /**
+     * Finds the column a pawn could be captured en passant on. The column only counts if an
+     * opposing pawn is beside the en passantable pawn, so that positions with the same
+     * possible moves get the same key.
+     *
+     * @return the column of the en passantable pawn, or 0 if no en passant capture is possible
+     */
+    int enPassantColumn() {
+        return enPassantColumn(board.findEnPassantSquare());
+    }
+
+    private int enPassantColumn(int square) {
+        if (square < 0) { return 0; }
+
+        TeamColor pawnColor = board.getPiece(square).getTeamColor();
+        TeamColor capturingColor = pawnColor == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE;
+        long besidePawn = Bitboards.kingAttacks(square) & Bitboards.rankMask(Bitboards.row(square));
+
+        if ((besidePawn & board.pieces(capturingColor, ChessPiece.PieceType.PAWN)) == 0) { return 0; }
+
+        return Bitboards.column(square);
     }
 
     @Override
@@ -71,68 +235,38 @@ public class ChessGame {
      * startPosition
      */
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
-            // Return null if no piece is at the start position
-            if (board.getPiece(startPosition) == null) {
-                return null;
-            }
-
-            // Find the team color
-            ChessGame.TeamColor teamColor = board.getPiece(startPosition).getTeamColor();
-
-            // Find all the basic moves that this piece can make
-            ArrayList<ChessMove> moves = (ArrayList<ChessMove>) board.getPiece(startPosition).pieceMoves(board, startPosition);
-            ArrayList<ChessMove> validMoves = new ArrayList<>();
-
-            // Loop through the basic moves
-            for (int i = 0; i < moves.size(); ++i) {
-                // Create a new branch board
-                ChessGame branch = new ChessGame();
-                branch.setBoard(board);
-
-                // Find the new piece if promoting
-                ChessPiece newPiece = moves.get(i).getPromotionPiece() == null ?
-                        branch.getBoard().getPiece(moves.get(i).getStartPosition()) :
-                        new ChessPiece(teamColor, moves.get(i).getPromotionPiece());
-
-                // If it is castling, move the rook too
-                if (branch.isCastling(moves.get(i)) != null) {
-                    boolean queenSide = branch.isCastling(moves.get(i)) == ChessPiece.PieceType.QUEEN;
+        // Return null if no piece is at the start position
+        ChessPiece piece = board.getPiece(startPosition);
+        if (piece == null) { return null; }
 
-                    // Make a new rook
-                    ChessPiece newRook = new ChessPiece(board.getPiece(startPosition).getTeamColor(), ChessPiece.PieceType.ROOK);
-                    newRook.flagAsMoved();
+        // Find the moves this piece can make without leaving our king in check
+        MoveList moves = moveBuffer();
+        MoveGenerator.generateLegal(board, Bitboards.square(startPosition), moves);
 
-                    int row = moves.get(i).getEndPosition().getRow();
-                    int col = moves.get(i).getEndPosition().getColumn();
-
-                    // Place the rook
-                    branch.getBoard().addPiece(new ChessPosition(row, col + (queenSide ? 1 : -1)), newRook);
-                    branch.getBoard().removePiece(new ChessPosition(row, (queenSide ? 1 : 8)));
-                }
-
-                // If the move was en passant, capture the other pawn
-                if (branch.isEnPassant(moves.get(i))) {
-                    int row = moves.get(i).getStartPosition().getRow();
-                    int col = moves.get(i).getEndPosition().getColumn();
-
-                    branch.getBoard().removePiece(new ChessPosition(row, col));
-                }
-
-                // Move the piece hypothetically
-                branch.getBoard().addPiece(moves.get(i).getEndPosition(), newPiece);
-
-                // Make the previous space empty
-                branch.getBoard().removePiece(moves.get(i).getStartPosition());
+        return moves.toChessMoves();
+    }
 
-                // See if we are hypothetically in check
-                boolean invalidMove = branch.isInCheck(teamColor);
+    /**
+     * Gets every valid move for a team
+     *
+     * @param teamColor the team to get valid moves for
+     * @return every move the team can make without leaving its king in check
+     */
+    public Collection<ChessMove> legalMoves(TeamColor teamColor) {
+        MoveList moves = moveBuffer();
+        MoveGenerator.generateLegal(board, teamColor, moves);
 
-                if (!invalidMove) {
-                    validMoves.add(moves.get(i));
-                }
-            }
+        return moves.toChessMoves();
+    }
 
-            return validMoves;
+    /**
+     * Determines whether a team has any valid move, stopping as soon as one is found
+     *
+     * @param teamColor the team to look for moves for
+     * @return True if the team can make a move
+     */
+    public boolean hasAnyLegalMove(TeamColor teamColor) {
+        return MoveGenerator.hasLegalMove(board, teamColor, moveBuffer());
     }
 
     /**
@@ -143,64 +277,187 @@ public class ChessGame {
      */
     public void makeMove(ChessMove move) throws InvalidMoveException {
         // Throw invalid move if there is no piece
-        if (board.getPiece(move.getStartPosition()) == null) { throw new InvalidMoveException("Invalid move: no piece" ); }
+        ChessPiece piece = board.getPiece(move.getStartPosition());
+        if (piece == null) { throw new InvalidMoveException("Invalid move: no piece" ); }
 
-        // Find all valid moves for start position
-        ArrayList<ChessMove> possibleMoves = (ArrayList<ChessMove>) validMoves(move.getStartPosition());
+        // Find all valid moves for start position, and look for the requested one among them
+        MoveList possibleMoves = moveBuffer();
+        MoveGenerator.generateLegal(board, Bitboards.square(move.getStartPosition()), possibleMoves);
+        int requested = PackedMove.of(move);
 
         boolean isValid = false;
-
-        // Loop through possible moves to see if this move is valid
         for (int i = 0; i < possibleMoves.size(); ++i) {
-            if (possibleMoves.get(i).equals(move)) {
+            if (PackedMove.sameMove(possibleMoves.get(i), requested)) {
                 isValid = true;
                 break;
             }
         }
 
         // Check to make sure the moving piece matches the team color
-        if (board.getPiece(move.getStartPosition()).getTeamColor() != teamTurn) { isValid = false; }
+        if (piece.getTeamColor() != teamTurn) { isValid = false; }
 
         // If the move is not valid throw an exception
         if (!isValid) { throw new InvalidMoveException("Invalid move attempted: " + move); }
 
-        // Get the piece to move
-        ChessPiece movingPiece = board.getPiece(move.getStartPosition());
+        applyMove(move);
+    }
 
-        // If promoting, change moving piece to promoted piece
-        if (move.getPromotionPiece() != null) { movingPiece = new ChessPiece(movingPiece.getTeamColor(), move.getPromotionPiece()); }
+    /**
+     * Makes a move on this game's board without checking that it is valid. The returned
+     * record can be passed to unmakeMove to restore the game exactly as it was.
+     *
+     * @param move chess move to perform, which must start on a piece
+     * @return the record needed to take the move back
+     */
+    public MoveUndo applyMove(ChessMove move) {
+        long key = positionKey();
+        ChessPiece movingPiece = board.getPiece(move.getStartPosition());
+        boolean movedBefore = movingPiece.ifMoved();
+        int enPassantSquare = this.enPassantSquare;
 
-        // If it is castling, move the rook too
-        if (isCastling(move) != null) {
-            // Find the direction
-            boolean queenSide = isCastling(move) == ChessPiece.PieceType.QUEEN;
+        // Castling and en passant depend on the board before anything moves
+        ChessPiece.PieceType castlingSide = isCastling(move);
+        boolean enPassant = isEnPassant(move);
 
-            // Make a new rook
-            ChessPiece newRook = new ChessPiece(movingPiece.getTeamColor(), ChessPiece.PieceType.ROOK);
-            newRook.flagAsMoved();
+        // Find the captured piece, which is beside the moving pawn for en passant
+        ChessPosition capturedPosition = enPassant ?
+                ChessPosition.of(move.getStartPosition().getRow(), move.getEndPosition().getColumn()) :
+                move.getEndPosition();
+        ChessPiece capturedPiece = board.getPiece(capturedPosition);
+        if (capturedPiece != null) { board.removePiece(capturedPosition); }
 
-            // Place the rook
-            board.addPiece(new ChessPosition(move.getEndPosition().getRow(), move.getEndPosition().getColumn() + (queenSide ? 1 : -1)), newRook);
-            board.removePiece(new ChessPosition(move.getEndPosition().getRow(), (queenSide ? 1 : 8)));
+        // If it is castling, move the rook too
+        ChessPiece castledRook = null;
+        if (castlingSide != null) {
+            boolean queenSide = castlingSide == ChessPiece.PieceType.QUEEN;
+            int row = move.getEndPosition().getRow();
+            ChessPosition corner = ChessPosition.of(row, queenSide ? 1 : 8);
+
+            castledRook = board.getPiece(corner);
+            if (castledRook != null) {
+                board.removePiece(corner);
+                board.addPiece(ChessPosition.of(row, move.getEndPosition().getColumn() + (queenSide ? 1 : -1)), castledRook);
+                castledRook.flagAsMoved();
+            }
         }
 
-        // If the move was en passant, capture the other pawn
-        if (isEnPassant(move)) { board.removePiece(new ChessPosition(move.getStartPosition().getRow(), move.getEndPosition().getColumn())); }
+        // If promoting, change moving piece to promoted piece
+        ChessPiece placedPiece = move.getPromotionPiece() == null ? movingPiece :
+                new ChessPiece(movingPiece.getTeamColor(), move.getPromotionPiece());
 
-        // If the move is valid, make the move
-        movingPiece.flagAsMoved();
-        board.addPiece(move.getEndPosition(), movingPiece);
+        // Make the move
+        placedPiece.flagAsMoved();
         board.removePiece(move.getStartPosition());
+        board.addPiece(move.getEndPosition(), placedPiece);
 
-        // Set all en passant flags to false
-        board.resetEnPassant();
+        // Only the previous en passant pawn can still be flagged, so un-flag just that one
+        if (enPassantSquare >= 0 && board.getPiece(enPassantSquare) != null) {
+            board.getPiece(enPassantSquare).setEnPassantable(false);
+        }
 
         // If the pawn moved 2 spaces, flag it as en passantable. If not, un-flag it
-        movingPiece.setEnPassantable(movingPiece.getPieceType() == ChessPiece.PieceType.PAWN &&
-                Math.abs(move.getEndPosition().getRow() - move.getStartPosition().getRow()) > 1);
+        boolean doublePush = placedPiece.getPieceType() == ChessPiece.PieceType.PAWN &&
+                Math.abs(move.getEndPosition().getRow() - move.getStartPosition().getRow()) > 1;
+        placedPiece.setEnPassantable(doublePush);
+
+        // Moving from or to a king or rook's starting square loses the castling rights that need it
+        castling &= ~(CASTLING_LOST[Bitboards.square(move.getStartPosition())] |
+                CASTLING_LOST[Bitboards.square(move.getEndPosition())]);
+        this.enPassantSquare = doublePush ? Bitboards.square(move.getEndPosition()) : -1;
+        keyStateModifications = board.modifications();
+
+        TeamColor previousTurn = teamTurn;
+        int previousHalfmoveClock = halfmoveClock;
+
+        // Captures and pawn moves restart the halfmove clock, and the full move count goes up after black moves
+        boolean pawnMove = movingPiece.getPieceType() == ChessPiece.PieceType.PAWN;
+        halfmoveClock = capturedPiece != null || pawnMove ? 0 : halfmoveClock + 1;
+        if (teamTurn == TeamColor.BLACK) { ++fullmoveNumber; }
 
         // Update team color
         teamTurn = teamTurn == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE;
+
+        MoveUndo undo = new MoveUndo(move, movingPiece, movedBefore, capturedPiece, Bitboards.square(capturedPosition),
+                castledRook, enPassantSquare, previousTurn, previousHalfmoveClock);
+        history.push(undo, key);
+        return undo;
+    }
+
+    /**
+     * Takes back a move made with applyMove. Moves must be taken back in the reverse
+     * order they were made.
+     *
+     * @param undo the record returned when the move was made
+     */
+    public void unmakeMove(MoveUndo undo) {
+        ChessMove move = undo.move();
+        ensureKeyState();
+
+        // Put the moving piece (the pawn itself if it promoted) back where it started
+        board.getPiece(move.getEndPosition()).setEnPassantable(false);
+        board.removePiece(move.getEndPosition());
+        board.addPiece(move.getStartPosition(), undo.movedPiece());
+        undo.movedPiece().setMoved(undo.movedBefore());
+
+        // Put back anything that was captured
+        if (undo.capturedPiece() != null) {
+            board.addPiece(Bitboards.position(undo.capturedSquare()), undo.capturedPiece());
+        }
+
+        // Put the castled rook back in its corner
+        if (undo.castledRook() != null) {
+            int row = move.getEndPosition().getRow();
+            boolean queenSide = move.getEndPosition().getColumn() < move.getStartPosition().getColumn();
+
+            board.removePiece(ChessPosition.of(row, move.getEndPosition().getColumn() + (queenSide ? 1 : -1)));
+            board.addPiece(ChessPosition.of(row, queenSide ? 1 : 8), undo.castledRook());
+            undo.castledRook().setMoved(false);
+        }
+
+        // Restore the pawn that could be captured en passant before the move
+        if (undo.enPassantSquare() >= 0) {
+            board.getPiece(undo.enPassantSquare()).setEnPassantable(true);
+        }
+
+        // Castling rights only change when a piece moves from or to a king or rook's starting square
+        if ((CASTLING_LOST[Bitboards.square(move.getStartPosition())] |
+                CASTLING_LOST[Bitboards.square(move.getEndPosition())]) != 0) {
+            castling = castlingRights();
+        }
+        enPassantSquare = undo.enPassantSquare();
+        keyStateModifications = board.modifications();
+
+        teamTurn = undo.teamTurn();
+        halfmoveClock = undo.halfmoveClock();
+        if (teamTurn == TeamColor.BLACK) { --fullmoveNumber; }
+        history.pop();
+    }
+
+    /**
+     * Takes back the last move made in the game
+     *
+     * @return the move that was taken back, or null if no moves have been made
+     */
+    public ChessMove undoMove() {
+        if (history.size() == 0) { return null; }
+
+        MoveUndo undo = history.last(board);
+        unmakeMove(undo);
+        return undo.move();
+    }
+
+    /**
+     * @return every move made in the game, oldest first
+     */
+    public List<ChessMove> getMoveHistory() {
+        return history.toList();
+    }
+
+    /**
+     * @return how many moves (by either team) have been made in the game
+     */
+    public int getPlyCount() {
+        return history.size();
     }
 
     /**
@@ -210,11 +467,7 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        // Find the king
-        ChessPosition kingPosition = board.findKing(teamColor);
-
-        // Find all valid moves from the opponent
-        return board.positionIsAttacked(kingPosition, (teamColor == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE));
+        return board.kingIsAttacked(teamColor);
     }
 
     /**
@@ -224,20 +477,14 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
-        // Determine if we are in check
-        boolean inCheck = isInCheck(teamColor);
+        // The team to move shares the cached status
+        if (teamColor == teamTurn) { return getStatus().state() == GameStatus.State.CHECKMATE; }
 
-        // If we aren't in check, we aren't in checkmate
-        if (!inCheck) { return false; }
+        // If no pieces are giving check, we aren't in checkmate
+        if (board.checkers(teamColor) == 0) { return false; }
 
-        // If we are in check, see if we have any valid moves
-        ArrayList<ChessPosition> myPieces = board.findAllPieces(teamColor);
-        for (int i = 0; i < myPieces.size(); ++i) {
-            if (!validMoves(myPieces.get(i)).isEmpty()) { return false; }
-        }
-
-        // If no valid moves were found, we are in checkmate
-        return true;
+        // If we are in check and have no valid moves, we are in checkmate
+        return !hasAnyLegalMove(teamColor);
     }
 
     /**
@@ -248,20 +495,108 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
-        // Determine if we are in check
-        boolean inCheck = isInCheck(teamColor);
+        // The team to move shares the cached status
+        if (teamColor == teamTurn) { return getStatus().state() == GameStatus.State.STALEMATE; }
 
         // If we are in check, we aren't in stalemate
-        if (inCheck) { return false; }
+        if (isInCheck(teamColor)) { return false; }
+
+        // If we are not in check and have no valid moves, we are in stalemate
+        return !hasAnyLegalMove(teamColor);
+    }
+
+    /**
+     * Determines whether the current position has occurred three times with the same team to
+     * move, castling rights and en passant options. Only positions since the last capture or pawn
+     * move are checked, since nothing before an irreversible move can repeat.
+     *
+     * @return True if the position has occurred at least twice before
+     */
+    public boolean isThreefoldRepetition() {
+        return history.repetitions(positionKey(), halfmoveClock) >= 2;
+    }
+
+    /**
+     * Determines whether fifty moves by each team have passed without a capture or pawn move
+     *
+     * @return True if the halfmove clock has reached 100
+     */
+    public boolean isFiftyMoveRule() {
+        return halfmoveClock >= 100;
+    }
+
+    /**
+     * Gets the status of the team whose turn it is. The status is worked out the first time it is
+     * asked for after a move and reused until the board changes again, so checking for check,
+     * checkmate and stalemate after a move only generates the team's moves once.
+     *
+     * @return whether the team to move is in check, checkmate or stalemate or the game is drawn, and how
+     * many moves the team has
+     */
+    public GameStatus getStatus() {
+        if (status == null || statusModifications != board.modifications() || statusTurn != teamTurn) {
+            boolean inCheck = isInCheck(teamTurn);
+            int legalMoveCount = MoveGenerator.generateLegal(board, teamTurn, moveBuffer());
+
+            GameStatus.State state;
+            if (legalMoveCount == 0) {
+                state = inCheck ? GameStatus.State.CHECKMATE : GameStatus.State.STALEMATE;
+            } else if (isFiftyMoveRule()) {
+                state = GameStatus.State.FIFTY_MOVE_RULE;
+            } else if (isThreefoldRepetition()) {
+                state = GameStatus.State.THREEFOLD_REPETITION;
+            } else {
+                state = inCheck ? GameStatus.State.CHECK : GameStatus.State.ONGOING;
+            }
+
+            status = new GameStatus(state, legalMoveCount);
 
-        // If we are in check, see if we have any valid moves
-        ArrayList<ChessPosition> myPieces = board.findAllPieces(teamColor);
-        for (int i = 0; i < myPieces.size(); ++i) {
-            if (!validMoves(myPieces.get(i)).isEmpty()) { return false; }
+            // Taken after generating, since checking en passant moves the pieces and puts them back
+            statusModifications = board.modifications();
+            statusTurn = teamTurn;
         }
 
-        // If no valid moves were found, we are in stalemate
-        return true;
+        return status;
+    }
+
+    /**
+     * @return this game's move buffer, emptied and ready to generate into
+     */
+    private MoveList moveBuffer() {
+        if (moveBuffer == null) { moveBuffer = new MoveList(); }
+        moveBuffer.clear();
+        return moveBuffer;
+    }
+
+    /**
+     * @return how many moves have been made since the last capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * @return the number of the current full move, starting at 1 and going up after each black move
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /**
+     * Sets the move clocks, e.g. when loading a position
+     *
+     * @param halfmoveClock moves since the last capture or pawn move
+     * @param fullmoveNumber the number of the current full move
+     */
+    void setClocks(int halfmoveClock, int fullmoveNumber) {
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+
+        // The fifty-move rule depends on the clock, so a status worked out before may be wrong now
+        status = null;
+
+        // Called once the position is loaded, which may have changed castling and en passant flags only
+        keyStateValid = false;
     }
 
     /**
@@ -272,6 +607,8 @@ public class ChessGame {
     public void setBoard(ChessBoard newBoard) {
         board.setBoard(newBoard);
         teamTurn = TeamColor.WHITE;
+        history.clear();
+        keyStateValid = false;
     }
 
     /**
@@ -1,6 +1,12 @@
 package chess;
 
-import java.util.Objects;
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
 
 /**
  * Represents moving a chess piece on a chessboard
@@ -8,8 +14,13 @@ import java.util.Objects;
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessMove.Adapter.class)
 public class ChessMove {
 
+    // Shared instances of every move between two squares, indexed by start square, end square and
+    // promotion piece (0 for none), created the first time each move is asked for
+    private static final ChessMove[] CACHE = new ChessMove[64 * 64 * 7];
+
     private final ChessPosition startPosition;
     private final ChessPosition endPosition;
     private final ChessPiece.PieceType promotionPiece;
@@ -20,6 +31,40 @@ public class ChessMove {
         this.promotionPiece = promotionPiece;
     }
 
+    /**
+     * Gets the shared instance of a move. Moves never change, so the same instance can be handed
+     * out for every use of a move instead of creating a new one.
+     *
+     * @param startPosition where the piece starts
+     * @param endPosition where the piece ends
+     * @param promotionPiece what to promote a pawn to, or null
+     * @return the shared move, or a new one if either position is off the board
+     */
+    public static ChessMove of(ChessPosition startPosition, ChessPosition endPosition,
+                               ChessPiece.PieceType promotionPiece) {
+        if (startPosition == null || endPosition == null || !startPosition.insideBoard() || !endPosition.insideBoard()) {
+            return new ChessMove(startPosition, endPosition, promotionPiece);
+        }
+
+        return of(Bitboards.square(startPosition), Bitboards.square(endPosition), promotionPiece);
+    }
+
+    /**
+     * Gets the shared instance of a move between two square indexes (0 is a1, 63 is h8)
+     */
+    static ChessMove of(int from, int to, ChessPiece.PieceType promotionPiece) {
+        int index = ((from << 6) | to) * 7 + (promotionPiece == null ? 0 : promotionPiece.ordinal() + 1);
+        ChessMove move = CACHE[index];
+
+        // Moves only have final fields, so a thread that races to fill the entry still sees a whole move
+        if (move == null) {
+            move = new ChessMove(ChessPosition.of(from), ChessPosition.of(to), promotionPiece);
+            CACHE[index] = move;
+        }
+
+        return move;
+    }
+
     /**
      * Generates a hashCode for the chess move
      *
@@ -27,7 +72,10 @@ public class ChessMove {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(startPosition, endPosition, promotionPiece);
+        // Same value as Objects.hash(startPosition, endPosition, promotionPiece), without the varargs array
+        int hash = 31 + (startPosition == null ? 0 : startPosition.hashCode());
+        hash = 31 * hash + (endPosition == null ? 0 : endPosition.hashCode());
+        return 31 * hash + (promotionPiece == null ? 0 : promotionPiece.hashCode());
     }
 
     /**
@@ -82,4 +130,46 @@ public class ChessMove {
     public ChessPiece.PieceType getPromotionPiece() {
         return promotionPiece;
     }
+
+    /**
+     * Reads and writes moves in the same shape Gson gives them by default, handing out the shared instances
+     */
+    static class Adapter extends TypeAdapter<ChessMove> {
+        private final ChessPosition.Adapter positions = new ChessPosition.Adapter();
+
+        @Override
+        public void write(JsonWriter out, ChessMove move) throws IOException {
+            out.beginObject();
+            if (move.startPosition != null) { positions.write(out.name("startPosition"), move.startPosition); }
+            if (move.endPosition != null) { positions.write(out.name("endPosition"), move.endPosition); }
+            if (move.promotionPiece != null) { out.name("promotionPiece").value(move.promotionPiece.name()); }
+            out.endObject();
+        }
+
+        @Override
+        public ChessMove read(JsonReader in) throws IOException {
+            ChessPosition start = null;
+            ChessPosition end = null;
+            ChessPiece.PieceType promotion = null;
+
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+
+                switch (name) {
+                    case "startPosition" -> start = positions.read(in);
+                    case "endPosition" -> end = positions.read(in);
+                    case "promotionPiece" -> promotion = ChessPiece.PieceType.valueOf(in.nextString());
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+
+            return of(start, end, promotion);
+        }
+    }
 }
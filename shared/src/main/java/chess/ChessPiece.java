@@ -1,6 +1,5 @@
 package chess;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Objects;
 
@@ -24,6 +23,18 @@ public class ChessPiece {
         enPassantable = false;
     }
 
+    /**
+     * Creates a copy of a piece, including whether it has moved and can be captured en passant
+     *
+     * @param other the piece to copy
+     */
+    public ChessPiece(ChessPiece other) {
+        this.pieceColor = other.pieceColor;
+        this.type = other.type;
+        moved = other.moved;
+        enPassantable = other.enPassantable;
+    }
+
     /**
      * Generates a hashCode for the piece
      *
@@ -124,6 +135,15 @@ public class ChessPiece {
         moved = true;
     }
 
+    /**
+     * Sets whether the piece has been moved from start, used when taking back a move
+     *
+     * @param moved whether the piece has been moved
+     */
+    void setMoved(boolean moved) {
+        this.moved = moved;
+    }
+
     /**
      * @return whether the piece has been moved since the beginning
      */
@@ -155,17 +175,9 @@ public class ChessPiece {
      * @return Collection of valid moves
      */
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        ArrayList<ChessMove> possibleMoves = new ArrayList<>();
-
-        switch (type) {
-            case KING -> possibleMoves = new KingMovesCalculator().pieceMoves(board, myPosition);
-            case QUEEN -> possibleMoves = new QueenMovesCalculator().pieceMoves(board, myPosition);
-            case BISHOP -> possibleMoves = new BishopMovesCalculator().pieceMoves(board, myPosition);
-            case KNIGHT -> possibleMoves = new KnightMovesCalculator().pieceMoves(board, myPosition);
-            case ROOK -> possibleMoves = new RookMovesCalculator().pieceMoves(board, myPosition);
-            case PAWN -> possibleMoves = new PawnMovesCalculator().pieceMoves(board, myPosition);
-        }
+        MoveList moves = new MoveList();
+        MoveGenerator.generate(board, Bitboards.square(myPosition), this, moves);
 
-        return possibleMoves;
+        return moves.toChessMoves();
     }
 }
\ No newline at end of file
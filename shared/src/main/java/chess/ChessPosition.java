@@ -1,6 +1,11 @@
 package chess;
 
-import java.util.Objects;
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
 
 /**
  * Represents a single square position on a chess board
@@ -8,8 +13,18 @@ import java.util.Objects;
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessPosition.Adapter.class)
 public class ChessPosition {
 
+    // One shared instance per square, indexed the same way as the bitboards (0 is a1, 63 is h8)
+    private static final ChessPosition[] CACHE = new ChessPosition[64];
+
+    static {
+        for (int square = 0; square < 64; ++square) {
+            CACHE[square] = new ChessPosition(square / 8 + 1, square % 8 + 1);
+        }
+    }
+
     private final int row;
     private final int col;
 
@@ -18,6 +33,27 @@ public class ChessPosition {
         this.col = col;
     }
 
+    /**
+     * Gets the shared instance of a position. Positions never change, so the same instance
+     * can be handed out for every use of a square instead of creating a new one.
+     *
+     * @param row which row, 1 codes for the bottom row
+     * @param col which column, 1 codes for the left column
+     * @return the shared position, or a new one if it is off the board
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) { return new ChessPosition(row, col); }
+
+        return CACHE[(row - 1) * 8 + (col - 1)];
+    }
+
+    /**
+     * @return the shared position of a square index (0 is a1, 63 is h8)
+     */
+    static ChessPosition of(int square) {
+        return CACHE[square];
+    }
+
     public ChessPosition(String notation) throws InvalidMoveException {
         char file = notation.toLowerCase().charAt(0);
         char rank = notation.charAt(1);
@@ -37,7 +73,8 @@ public class ChessPosition {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(row, col);
+        // Same value as Objects.hash(row, col), without boxing
+        return 31 * (31 + row) + col;
     }
 
     /**
@@ -91,4 +128,34 @@ public class ChessPosition {
         return row >= 1 && row <= 8 && col >= 1 && col <= 8;
     }
 
+    /**
+     * Reads and writes positions as {"row": 1, "col": 1}, handing out the shared instances
+     */
+    static class Adapter extends TypeAdapter<ChessPosition> {
+        @Override
+        public void write(JsonWriter out, ChessPosition position) throws IOException {
+            out.beginObject();
+            out.name("row").value(position.row);
+            out.name("col").value(position.col);
+            out.endObject();
+        }
+
+        @Override
+        public ChessPosition read(JsonReader in) throws IOException {
+            int row = 0;
+            int col = 0;
+
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "row" -> row = in.nextInt();
+                    case "col" -> col = in.nextInt();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+
+            return of(row, col);
+        }
+    }
 }
@@ -0,0 +1,222 @@
+package chess;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation, e.g.
+ * "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"
+ */
+final class Fen {
+
+    private Fen() {
+
+    }
+
+    /**
+     * Builds a game from a FEN string. Castling rights are applied by flagging kings and
+     * rooks as moved, and the en passant target flags the pawn that just moved two spaces.
+     *
+     * @param fen the position to read
+     * @return a new game in that position
+     * @throws IllegalArgumentException if the string is not valid FEN
+     */
+    static ChessGame parse(String fen) {
+        ChessGame game = new ChessGame();
+        ChessBoard board = game.getBoard();
+        board.setBoard(new ChessBoard());
+
+        int i = readPlacement(fen, board);
+
+        // Only castling rights can mark a king or rook as unmoved
+        long pieces = board.occupied();
+        while (pieces != 0) {
+            board.getPiece(Long.numberOfTrailingZeros(pieces)).flagAsMoved();
+            pieces &= pieces - 1;
+        }
+
+        // Side to move
+        ++i;
+        if (i >= fen.length()) { throw invalid(fen, "missing side to move"); }
+        switch (fen.charAt(i++)) {
+            case 'w' -> game.setTeamTurn(ChessGame.TeamColor.WHITE);
+            case 'b' -> game.setTeamTurn(ChessGame.TeamColor.BLACK);
+            default -> throw invalid(fen, "side to move must be w or b");
+        }
+
+        // Castling rights, which are optional along with everything after them
+        if (++i < fen.length() && fen.charAt(i) != '-') {
+            for (; i < fen.length() && fen.charAt(i) != ' '; ++i) {
+                switch (fen.charAt(i)) {
+                    case 'K' -> board.allowCastling(1, 8);
+                    case 'Q' -> board.allowCastling(1, 1);
+                    case 'k' -> board.allowCastling(8, 8);
+                    case 'q' -> board.allowCastling(8, 1);
+                    default -> throw invalid(fen, "unexpected castling right '" + fen.charAt(i) + "'");
+                }
+            }
+        } else {
+            ++i;
+        }
+
+        // En passant target, the square behind the pawn that just moved two spaces
+        if (++i < fen.length() && fen.charAt(i) != '-') {
+            if (i + 1 >= fen.length()) { throw invalid(fen, "incomplete en passant square"); }
+
+            int targetCol = fen.charAt(i) - 'a' + 1;
+            int targetRow = fen.charAt(i + 1) - '0';
+            if (targetCol < 1 || targetCol > 8 || (targetRow != 3 && targetRow != 6)) {
+                throw invalid(fen, "en passant square must be on row 3 or 6");
+            }
+
+            ChessPiece pawn = board.getPiece(ChessPosition.of(targetRow == 3 ? 4 : 5, targetCol));
+            if (pawn == null || pawn.getPieceType() != ChessPiece.PieceType.PAWN) {
+                throw invalid(fen, "no pawn in front of the en passant square");
+            }
+            pawn.setEnPassantable(true);
+            i += 2;
+        } else {
+            ++i;
+        }
+
+        // Halfmove clock and fullmove number
+        int halfmoveClock = 0;
+        int fullmoveNumber = 1;
+        if (++i < fen.length()) {
+            int end = fieldEnd(fen, i);
+            halfmoveClock = readNumber(fen, i, end);
+            i = end + 1;
+
+            if (i < fen.length()) { fullmoveNumber = readNumber(fen, i, fieldEnd(fen, i)); }
+        }
+        game.setClocks(halfmoveClock, fullmoveNumber);
+
+        return game;
+    }
+
+    /**
+     * Adds the pieces from the placement field of a FEN string (everything before the first space) to the board
+     *
+     * @param fen the FEN string or placement field
+     * @param board the empty board to add pieces to
+     * @return the index just past the placement field
+     * @throws IllegalArgumentException if the placement is not valid
+     */
+    static int readPlacement(String fen, ChessBoard board) {
+        // Piece placement, from row 8 down to row 1
+        int i = 0;
+        int row = 8;
+        int col = 1;
+        for (; i < fen.length() && fen.charAt(i) != ' '; ++i) {
+            char c = fen.charAt(i);
+
+            if (c == '/') {
+                if (col != 9) { throw invalid(fen, "row " + row + " does not have 8 columns"); }
+                --row;
+                col = 1;
+            } else if (c >= '1' && c <= '8') {
+                col += c - '0';
+            } else {
+                ChessPiece.PieceType type = pieceType(c);
+                if (type == null || col > 8 || row < 1) { throw invalid(fen, "unexpected '" + c + "'"); }
+
+                ChessGame.TeamColor color = Character.isUpperCase(c) ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+                board.addPiece(ChessPosition.of(row, col++), new ChessPiece(color, type));
+            }
+        }
+        if (row != 1 || col != 9) { throw invalid(fen, "piece placement does not cover the board"); }
+
+        return i;
+    }
+
+    /**
+     * Writes a game as a FEN string. The en passant target is written whenever a pawn has just
+     * moved two spaces, whether or not it can be captured.
+     *
+     * @param game the game to write
+     * @return the position in FEN
+     */
+    static String write(ChessGame game) {
+        StringBuilder fen = new StringBuilder(90);
+        ChessBoard board = game.getBoard();
+
+        writePlacement(board, fen);
+        fen.append(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w " : " b ");
+
+        int rights = game.castlingRights();
+        if (rights == 0) { fen.append('-'); }
+        if ((rights & Zobrist.WHITE_KINGSIDE) != 0) { fen.append('K'); }
+        if ((rights & Zobrist.WHITE_QUEENSIDE) != 0) { fen.append('Q'); }
+        if ((rights & Zobrist.BLACK_KINGSIDE) != 0) { fen.append('k'); }
+        if ((rights & Zobrist.BLACK_QUEENSIDE) != 0) { fen.append('q'); }
+
+        // The target is the square the pawn passed over
+        int enPassantSquare = board.findEnPassantSquare();
+        if (enPassantSquare < 0) {
+            fen.append(" -");
+        } else {
+            boolean white = board.getPiece(enPassantSquare).getTeamColor() == ChessGame.TeamColor.WHITE;
+            fen.append(' ').append((char) ('a' + Bitboards.column(enPassantSquare) - 1)).append(white ? '3' : '6');
+        }
+
+        return fen.append(' ').append(game.getHalfmoveClock()).append(' ').append(game.getFullmoveNumber()).toString();
+    }
+
+    /**
+     * Appends the placement field of a board, from row 8 down to row 1
+     */
+    static void writePlacement(ChessBoard board, StringBuilder fen) {
+        for (int row = 8; row >= 1; --row) {
+            int empty = 0;
+
+            for (int col = 1; col <= 8; ++col) {
+                ChessPiece piece = board.getPiece(Bitboards.square(row, col));
+                if (piece == null) {
+                    ++empty;
+                    continue;
+                }
+
+                if (empty > 0) { fen.append(empty); }
+                empty = 0;
+                fen.append(piece.pieceTypeNotation(piece.getPieceType()));
+            }
+
+            if (empty > 0) { fen.append(empty); }
+            if (row > 1) { fen.append('/'); }
+        }
+    }
+
+    /**
+     * @return the piece type of a FEN letter (either case), or null if it is not a piece
+     */
+    static ChessPiece.PieceType pieceType(char c) {
+        return switch (Character.toLowerCase(c)) {
+            case 'k' -> ChessPiece.PieceType.KING;
+            case 'q' -> ChessPiece.PieceType.QUEEN;
+            case 'r' -> ChessPiece.PieceType.ROOK;
+            case 'b' -> ChessPiece.PieceType.BISHOP;
+            case 'n' -> ChessPiece.PieceType.KNIGHT;
+            case 'p' -> ChessPiece.PieceType.PAWN;
+            default -> null;
+        };
+    }
+
+    private static int fieldEnd(String fen, int start) {
+        int end = fen.indexOf(' ', start);
+        return end < 0 ? fen.length() : end;
+    }
+
+    private static int readNumber(String fen, int start, int end) {
+        if (start >= end || end - start > 6) { throw invalid(fen, "missing or oversized move number"); }
+
+        int number = 0;
+        for (int i = start; i < end; ++i) {
+            char c = fen.charAt(i);
+            if (c < '0' || c > '9') { throw invalid(fen, "move numbers must be digits"); }
+            number = number * 10 + (c - '0');
+        }
+
+        return number;
+    }
+
+    private static IllegalArgumentException invalid(String fen, String reason) {
+        return new IllegalArgumentException("Invalid FEN \"" + fen + "\": " + reason);
+    }
+}
@@ -0,0 +1,332 @@
+package chess;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Encodes games in a compact binary form for storage and transfer.
+ * <p>
+ * Byte 0 is the format version: 2 for the position alone, or 3 for the position with the moves
+ * that led to it. Bytes 1-32 hold the board, one 4-bit code per square starting
+ * at a1 (0 for empty, PieceType ordinal + 1 for white, plus 8 for black). Byte 33 holds flags
+ * for black to move, a finished game and a black en passant pawn. Byte 34 holds the castling
+ * rights in its low 4 bits and the en passant column (0 for none) in its high 4 bits. Bytes 35-36
+ * and 37-38 hold the halfmove clock and fullmove number as unsigned big-endian shorts.
+ * <p>
+ * Version 2 encodings are always LENGTH bytes, describe the current position and have no history.
+ * In version 3 encodings the LENGTH bytes describe the position before the game's first recorded
+ * move instead (the finished flag still describes the game). Bytes 39-40 hold the number of moves,
+ * followed by each move as a big-endian short of its from square, to square and promotion piece
+ * (see PackedMove), so decoding replays the moves and restores the game's history along with its
+ * position. That costs 2 bytes a move to store and a replay of every move to decode, so history is
+ * only encoded when asked for.
+ * <p>
+ * Version 1 encodings, which end after byte 34, can still be decoded.
+ */
+public final class GameCodec {
+
+    public static final int VERSION = 2;
+    public static final int HISTORY_VERSION = 3;
+    public static final int LENGTH = 39;
+
+    private static final int VERSION_1_LENGTH = 35;
+    private static final int MOVE_MASK = (1 << 15) - 1;
+
+    private static final int BLACK_TO_MOVE = 1;
+    private static final int FINISHED = 2;
+    private static final int BLACK_EN_PASSANT = 4;
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private GameCodec() {
+
+    }
+
+    /**
+     * @param game the game to encode
+     * @return the game's current position in LENGTH bytes, without its history
+     */
+    public static byte[] encode(ChessGame game) {
+        return encode(game, false);
+    }
+
+    /**
+     * @param game the game to encode
+     * @param withHistory whether to include the moves that led to the position
+     * @return the game in LENGTH bytes, plus with history 2 bytes for the move count and 2 for each move
+     */
+    public static byte[] encode(ChessGame game, boolean withHistory) {
+        if (!withHistory) {
+            byte[] bytes = new byte[LENGTH];
+            writePosition(game, game.isFinished(), VERSION, bytes);
+            return bytes;
+        }
+
+        List<ChessMove> moves = game.getMoveHistory();
+        byte[] bytes = new byte[LENGTH + 2 + 2 * moves.size()];
+
+        // Walk back to where the history starts, on a copy so the game is left alone
+        ChessGame start = game;
+        if (!moves.isEmpty()) {
+            start = new ChessGame(game);
+            for (int i = 0; i < moves.size(); ++i) { start.undoMove(); }
+        }
+        writePosition(start, game.isFinished(), HISTORY_VERSION, bytes);
+
+        writeShort(bytes, LENGTH, moves.size());
+        for (int i = 0; i < moves.size(); ++i) {
+            writeShort(bytes, LENGTH + 2 + 2 * i, PackedMove.of(moves.get(i)) & MOVE_MASK);
+        }
+
+        return bytes;
+    }
+
+    private static void writePosition(ChessGame game, boolean finished, int version, byte[] bytes) {
+        bytes[0] = (byte) version;
+        ChessBoard board = game.getBoard();
+
+        long pieces = board.occupied();
+        while (pieces != 0) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+
+            ChessPiece piece = board.getPiece(square);
+            int code = Bitboards.side(piece.getTeamColor()) * 8 + piece.getPieceType().ordinal() + 1;
+            bytes[1 + square / 2] |= (byte) (code << (square % 2 * 4));
+        }
+
+        int enPassantSquare = board.findEnPassantSquare();
+        int flags = (game.getTeamTurn() == ChessGame.TeamColor.BLACK ? BLACK_TO_MOVE : 0) |
+                (finished ? FINISHED : 0);
+        if (enPassantSquare >= 0 && board.getPiece(enPassantSquare).getTeamColor() == ChessGame.TeamColor.BLACK) {
+            flags |= BLACK_EN_PASSANT;
+        }
+
+        bytes[33] = (byte) flags;
+        bytes[34] = (byte) (game.castlingRights() | (enPassantSquare < 0 ? 0 : Bitboards.column(enPassantSquare)) << 4);
+        writeShort(bytes, 35, game.getHalfmoveClock());
+        writeShort(bytes, 37, game.getFullmoveNumber());
+    }
+
+    /**
+     * Rebuilds a game from its encoding. Kings and rooks are flagged as moved unless the castling
+     * rights say otherwise, and other pieces are flagged as moved.
+     *
+     * @param bytes the encoded game
+     * @return a new game
+     * @throws IllegalArgumentException if the bytes are not a supported encoding
+     */
+    public static ChessGame decode(byte[] bytes) {
+        boolean supported = (bytes.length >= LENGTH + 2 && bytes[0] == HISTORY_VERSION) ||
+                (bytes.length >= LENGTH && bytes[0] == VERSION) || (bytes.length >= VERSION_1_LENGTH && bytes[0] == 1);
+        if (!supported) { throw new IllegalArgumentException("Unsupported game encoding"); }
+
+        ChessGame game = emptyGame();
+        ChessBoard board = game.getBoard();
+
+        for (int square = 0; square < 64; ++square) {
+            int code = (bytes[1 + square / 2] >>> (square % 2 * 4)) & 0xF;
+            if (code == 0) { continue; }
+            if ((code & 7) == 7 || code == 8) { throw new IllegalArgumentException("Invalid piece code " + code); }
+
+            ChessPiece piece = new ChessPiece(code < 8 ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK,
+                    TYPES[(code & 7) - 1]);
+            piece.flagAsMoved();
+            board.addPiece(square, piece);
+        }
+
+        int flags = bytes[33];
+        game.setTeamTurn((flags & BLACK_TO_MOVE) != 0 ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+        if ((flags & FINISHED) != 0) { game.finishGame(); }
+
+        int rights = bytes[34] & 0xF;
+        if ((rights & Zobrist.WHITE_KINGSIDE) != 0) { board.allowCastling(1, 8); }
+        if ((rights & Zobrist.WHITE_QUEENSIDE) != 0) { board.allowCastling(1, 1); }
+        if ((rights & Zobrist.BLACK_KINGSIDE) != 0) { board.allowCastling(8, 8); }
+        if ((rights & Zobrist.BLACK_QUEENSIDE) != 0) { board.allowCastling(8, 1); }
+
+        int enPassantColumn = (bytes[34] >>> 4) & 0xF;
+        if (enPassantColumn != 0) {
+            ChessPiece pawn = board.getPiece(Bitboards.square((flags & BLACK_EN_PASSANT) != 0 ? 5 : 4, enPassantColumn));
+            if (pawn != null) { pawn.setEnPassantable(true); }
+        }
+
+        if (bytes[0] >= 2) { game.setClocks(readShort(bytes, 35), readShort(bytes, 37)); }
+
+        if (bytes[0] == HISTORY_VERSION) { replayMoves(game, bytes); }
+
+        return game;
+    }
+
+    /**
+     * Makes the recorded moves, so the game ends up in its current position with its history
+     */
+    private static void replayMoves(ChessGame game, byte[] bytes) {
+        int count = readShort(bytes, LENGTH);
+        if (bytes.length < LENGTH + 2 + 2 * count) { throw new IllegalArgumentException("Truncated game encoding"); }
+
+        for (int i = 0; i < count; ++i) {
+            int packed = readShort(bytes, LENGTH + 2 + 2 * i);
+            if (((packed >>> 12) & 7) == 7 || game.getBoard().getPiece(PackedMove.from(packed)) == null) {
+                throw new IllegalArgumentException("Invalid recorded move " + packed);
+            }
+            game.applyMove(PackedMove.toChessMove(packed));
+        }
+    }
+
+    /**
+     * @return the game's current position encoded as Base64 text
+     */
+    public static String encodeToString(ChessGame game) {
+        return encodeToString(game, false);
+    }
+
+    /**
+     * @return the game encoded as Base64 text, with its history if asked for
+     */
+    public static String encodeToString(ChessGame game, boolean withHistory) {
+        return Base64.getEncoder().encodeToString(encode(game, withHistory));
+    }
+
+    /**
+     * @param text a game encoded by encodeToString
+     * @return a new game
+     * @throws IllegalArgumentException if the text is not a supported encoding
+     */
+    public static ChessGame decodeString(String text) {
+        return decode(Base64.getDecoder().decode(text));
+    }
+
+    private static void writeShort(byte[] bytes, int index, int value) {
+        int clamped = Math.min(value, 0xFFFF);
+        bytes[index] = (byte) (clamped >>> 8);
+        bytes[index + 1] = (byte) clamped;
+    }
+
+    private static int readShort(byte[] bytes, int index) {
+        return ((bytes[index] & 0xFF) << 8) | (bytes[index + 1] & 0xFF);
+    }
+
+    private static ChessGame emptyGame() {
+        ChessGame game = new ChessGame();
+        game.getBoard().setBoard(new ChessBoard());
+        return game;
+    }
+
+    /**
+     * Writes games to JSON as {"encoded": "..."} holding the Base64 encoding, without reflection.
+     * Games written by reflection before the encoding existed, with the whole board of pieces
+     * and their flags, can still be read.
+     */
+    static class GsonAdapter extends TypeAdapter<ChessGame> {
+        @Override
+        public void write(JsonWriter out, ChessGame game) throws IOException {
+            out.beginObject();
+            out.name("encoded").value(encodeToString(game));
+            out.endObject();
+        }
+
+        @Override
+        public ChessGame read(JsonReader in) throws IOException {
+            ChessGame game = null;
+            ChessGame.TeamColor teamTurn = ChessGame.TeamColor.WHITE;
+            boolean finished = false;
+
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "encoded" -> {
+                        try {
+                            return finishObject(in, decodeString(in.nextString()));
+                        } catch (IllegalArgumentException e) {
+                            throw new IOException("Error: invalid game encoding", e);
+                        }
+                    }
+                    case "board" -> game = readBoard(in);
+                    case "teamTurn" -> teamTurn = ChessGame.TeamColor.valueOf(in.nextString());
+                    case "finished" -> finished = in.nextBoolean();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+
+            if (game == null) { game = emptyGame(); }
+            game.setTeamTurn(teamTurn);
+            if (finished) { game.finishGame(); }
+
+            return game;
+        }
+
+        private static ChessGame finishObject(JsonReader in, ChessGame game) throws IOException {
+            while (in.hasNext()) {
+                in.nextName();
+                in.skipValue();
+            }
+            in.endObject();
+
+            return game;
+        }
+
+        /**
+         * Reads {"squares": [[piece or null, ...], ...]} with rows starting at row 1
+         */
+        private static ChessGame readBoard(JsonReader in) throws IOException {
+            ChessGame game = emptyGame();
+
+            in.beginObject();
+            while (in.hasNext()) {
+                if (!in.nextName().equals("squares")) {
+                    in.skipValue();
+                    continue;
+                }
+
+                in.beginArray();
+                for (int row = 0; in.hasNext(); ++row) {
+                    in.beginArray();
+                    for (int col = 0; in.hasNext(); ++col) {
+                        if (in.peek() == JsonToken.NULL) {
+                            in.nextNull();
+                        } else {
+                            game.getBoard().addPiece(row * 8 + col, readPiece(in));
+                        }
+                    }
+                    in.endArray();
+                }
+                in.endArray();
+            }
+            in.endObject();
+
+            return game;
+        }
+
+        private static ChessPiece readPiece(JsonReader in) throws IOException {
+            ChessGame.TeamColor color = null;
+            ChessPiece.PieceType type = null;
+            boolean moved = false;
+            boolean enPassantable = false;
+
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "pieceColor" -> color = ChessGame.TeamColor.valueOf(in.nextString());
+                    case "type" -> type = ChessPiece.PieceType.valueOf(in.nextString());
+                    case "moved" -> moved = in.nextBoolean();
+                    case "enPassantable" -> enPassantable = in.nextBoolean();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+
+            ChessPiece piece = new ChessPiece(color, type);
+            piece.setMoved(moved);
+            piece.setEnPassantable(enPassantable);
+            return piece;
+        }
+    }
+}
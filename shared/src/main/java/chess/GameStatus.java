@@ -0,0 +1,26 @@
+package chess;
+
+/**
+ * The state of a game for the team whose turn it is
+ *
+ * @param state whether the team is in check, checkmate or stalemate, or the game is drawn by rule
+ * @param legalMoveCount how many valid moves the team has
+ */
+public record GameStatus(State state, int legalMoveCount) {
+
+    public enum State {
+        ONGOING,
+        CHECK,
+        CHECKMATE,
+        STALEMATE,
+        THREEFOLD_REPETITION,
+        FIFTY_MOVE_RULE;
+
+        /**
+         * @return whether the game can't continue from this state
+         */
+        public boolean isGameOver() {
+            return this != ONGOING && this != CHECK;
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package chess;
+
+/**
+ * Generates moves as packed ints (see PackedMove) into a caller-supplied MoveList, using the
+ * precomputed attack tables in Bitboards. Neither generating moves nor testing them for
+ * legality creates any objects, so a MoveList can be cleared and reused for every search.
+ */
+public final class MoveGenerator {
+
+    private static final ChessPiece.PieceType[] PROMOTIONS = {
+            ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK,
+            ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT
+    };
+
+    private MoveGenerator() {
+
+    }
+
+    /**
+     * Adds every pseudo-legal move of a team to the list. Moves that leave the team's own king
+     * in check are included and can be filtered out with isLegal.
+     *
+     * @param board the board to generate moves on
+     * @param teamColor the team to generate moves for
+     * @param moves the list to add the moves to
+     * @return how many moves were added
+     */
+    public static int generate(ChessBoard board, ChessGame.TeamColor teamColor, MoveList moves) {
+        int start = moves.size();
+
+        long pieces = board.pieces(teamColor);
+        while (pieces != 0) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+
+            generate(board, square, board.getPiece(square), moves);
+        }
+
+        return moves.size() - start;
+    }
+
+    /**
+     * Adds every pseudo-legal move of a single piece to the list
+     *
+     * @param board the board to generate moves on
+     * @param square where the piece stands (0 is a1, 63 is h8)
+     * @param piece the piece to move
+     * @param moves the list to add the moves to
+     * @return how many moves were added
+     */
+    static int generate(ChessBoard board, int square, ChessPiece piece, MoveList moves) {
+        int start = moves.size();
+        addMoves(board, square, piece, ~0L, false, moves);
+        return moves.size() - start;
+    }
+
+    /**
+     * Adds every legal move of a team to the list. Checkers and pinned pieces are found once, so
+     * each piece only generates moves that keep its king safe: when in check only the moves that
+     * capture the checker or block it are generated, and in double check only king moves.
+     *
+     * @param board the board to generate moves on
+     * @param teamColor the team to generate moves for
+     * @param moves the list to add the moves to
+     * @return how many moves were added
+     */
+    public static int generateLegal(ChessBoard board, ChessGame.TeamColor teamColor, MoveList moves) {
+        return addLegalMoves(board, teamColor, board.pieces(teamColor), false, moves);
+    }
+
+    /**
+     * Adds every legal move of the piece on a square to the list
+     *
+     * @param board the board to generate moves on
+     * @param square where the piece stands (0 is a1, 63 is h8)
+     * @param moves the list to add the moves to
+     * @return how many moves were added
+     */
+    static int generateLegal(ChessBoard board, int square, MoveList moves) {
+        ChessPiece piece = board.getPiece(square);
+        return piece == null ? 0 : addLegalMoves(board, piece.getTeamColor(), 1L << square, false, moves);
+    }
+
+    /**
+     * Checks whether a team has any legal move, stopping at the first piece that has one. The
+     * king is tried first since it is the only piece that can escape every check.
+     *
+     * @param board the board to look for moves on
+     * @param teamColor the team to look for moves for
+     * @param moves scratch list to generate into, which is left with whatever moves were found
+     * @return whether the team can move
+     */
+    public static boolean hasLegalMove(ChessBoard board, ChessGame.TeamColor teamColor, MoveList moves) {
+        return addLegalMoves(board, teamColor, board.pieces(teamColor), true, moves) > 0;
+    }
+
+    private static int addLegalMoves(ChessBoard board, ChessGame.TeamColor teamColor, long from, boolean stopAtFirst,
+                                     MoveList moves) {
+        int start = moves.size();
+        long king = board.pieces(teamColor, ChessPiece.PieceType.KING);
+
+        // Without a king nothing can be left in check, so every move is legal
+        if (king == 0) {
+            while (from != 0 && !(stopAtFirst && moves.size() > start)) {
+                int square = Long.numberOfTrailingZeros(from);
+                from &= from - 1;
+                addMoves(board, square, board.getPiece(square), ~0L, false, moves);
+            }
+            return moves.size() - start;
+        }
+
+        int kingSquare = Long.numberOfTrailingZeros(king);
+        if ((from & king) != 0) {
+            addMoves(board, kingSquare, board.getPiece(kingSquare), ~0L, true, moves);
+            if (stopAtFirst && moves.size() > start) { return moves.size() - start; }
+        }
+
+        // In double check only the king can move
+        long checkers = board.checkers(teamColor);
+        if (Long.bitCount(checkers) > 1) { return moves.size() - start; }
+
+        // In single check the other pieces must capture the checker or step between it and the king
+        long allowed = checkers == 0 ? ~0L : checkers | Bitboards.between(kingSquare, Long.numberOfTrailingZeros(checkers));
+        long pinned = pinnedPieces(board, teamColor, kingSquare);
+
+        long pieces = from & ~king;
+        while (pieces != 0 && !(stopAtFirst && moves.size() > start)) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+
+            // A pinned piece may only move along the line through its king and the pinning piece
+            long pinLine = (pinned & (1L << square)) != 0 ? Bitboards.line(kingSquare, square) : ~0L;
+            addMoves(board, square, board.getPiece(square), allowed & pinLine, true, moves);
+        }
+
+        return moves.size() - start;
+    }
+
+    /**
+     * Finds the team's pieces that are the only thing between their king and an opposing slider
+     */
+    private static long pinnedPieces(ChessBoard board, ChessGame.TeamColor teamColor, int kingSquare) {
+        ChessGame.TeamColor opposingTeam = opposingTeam(teamColor);
+        long own = board.pieces(teamColor);
+        long enemy = board.pieces(opposingTeam);
+        long queens = board.pieces(opposingTeam, ChessPiece.PieceType.QUEEN);
+
+        // Look from the king through our own pieces to find the sliders lined up with it
+        long pinners = (Bitboards.rookAttacks(kingSquare, enemy) & (board.pieces(opposingTeam, ChessPiece.PieceType.ROOK) | queens)) |
+                (Bitboards.bishopAttacks(kingSquare, enemy) & (board.pieces(opposingTeam, ChessPiece.PieceType.BISHOP) | queens));
+
+        long pinned = 0L;
+        while (pinners != 0) {
+            long blockers = Bitboards.between(kingSquare, Long.numberOfTrailingZeros(pinners)) & own;
+            pinners &= pinners - 1;
+
+            if (Long.bitCount(blockers) == 1) { pinned |= blockers; }
+        }
+
+        return pinned;
+    }
+
+    /**
+     * Checks whether a pseudo-legal move keeps the moving team's king out of check. The move is
+     * tried on the board by moving the existing pieces, and the board is restored before returning.
+     * Piece flags are never touched.
+     *
+     * @param board the board the move was generated on
+     * @param move the packed move to test
+     * @return whether the move is legal
+     */
+    public static boolean isLegal(ChessBoard board, int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        ChessPiece movingPiece = board.getPiece(from);
+
+        // An en passant capture takes the pawn beside the start square rather than on the end square
+        int capturedSquare = PackedMove.isEnPassant(move) ? (from & ~7) | (to & 7) : to;
+        ChessPiece capturedPiece = board.getPiece(capturedSquare);
+
+        // A promoted piece blocks the same lines as the pawn, so the pawn can stand in for it
+        board.removePiece(capturedSquare);
+        board.removePiece(from);
+        board.addPiece(to, movingPiece);
+
+        int rookFrom = -1;
+        int rookTo = -1;
+        if (PackedMove.isCastling(move)) {
+            rookFrom = to > from ? from + 3 : from - 4;
+            rookTo = to > from ? to - 1 : to + 1;
+            board.addPiece(rookTo, board.getPiece(rookFrom));
+            board.removePiece(rookFrom);
+        }
+
+        boolean legal = !board.kingIsAttacked(movingPiece.getTeamColor());
+
+        // Put everything back where it was
+        if (rookFrom != -1) {
+            board.addPiece(rookFrom, board.getPiece(rookTo));
+            board.removePiece(rookTo);
+        }
+        board.removePiece(to);
+        board.addPiece(from, movingPiece);
+        if (capturedPiece != null) { board.addPiece(capturedSquare, capturedPiece); }
+
+        return legal;
+    }
+
+    /**
+     * Adds the moves of a single piece that end on an allowed square. When legal is set the king
+     * only steps onto unattacked squares and en passant captures are tested on the board, since
+     * those are the moves the allowed squares can't account for.
+     */
+    private static void addMoves(ChessBoard board, int square, ChessPiece piece, long allowed, boolean legal,
+                                 MoveList moves) {
+        ChessGame.TeamColor myColor = piece.getTeamColor();
+        long own = board.pieces(myColor);
+        long enemy = board.pieces(opposingTeam(myColor));
+        long occupied = own | enemy;
+
+        switch (piece.getPieceType()) {
+            case KING -> {
+                long targets = Bitboards.kingAttacks(square) & ~own;
+                if (legal) { targets = safeKingTargets(board, square, opposingTeam(myColor), targets, occupied); }
+                addTargets(square, targets, enemy, moves);
+                addCastling(board, square, piece, moves);
+            }
+            case QUEEN -> addTargets(square, Bitboards.queenAttacks(square, occupied) & ~own & allowed, enemy, moves);
+            case BISHOP -> addTargets(square, Bitboards.bishopAttacks(square, occupied) & ~own & allowed, enemy, moves);
+            case KNIGHT -> addTargets(square, Bitboards.knightAttacks(square) & ~own & allowed, enemy, moves);
+            case ROOK -> addTargets(square, Bitboards.rookAttacks(square, occupied) & ~own & allowed, enemy, moves);
+            case PAWN -> addPawnMoves(board, square, myColor, occupied, enemy, allowed, legal, moves);
+        }
+    }
+
+    /**
+     * Removes the targets a king would be attacked on. The king is taken off the board first so
+     * it can't hide from a slider behind its own square.
+     */
+    private static long safeKingTargets(ChessBoard board, int square, ChessGame.TeamColor opposingTeam, long targets,
+                                        long occupied) {
+        long safe = 0L;
+        long withoutKing = occupied & ~(1L << square);
+
+        while (targets != 0) {
+            int target = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+
+            if (board.attackersOf(target, opposingTeam, withoutKing) == 0) { safe |= 1L << target; }
+        }
+
+        return safe;
+    }
+
+    /**
+     * Adds a move from the square to every target, flagging the ones that capture
+     */
+    private static void addTargets(int square, long targets, long enemy, MoveList moves) {
+        while (targets != 0) {
+            int target = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+
+            int flags = (enemy & (1L << target)) != 0 ? PackedMove.CAPTURE : 0;
+            moves.add(PackedMove.of(square, target, null, flags));
+        }
+    }
+
+    private static void addCastling(ChessBoard board, int square, ChessPiece king, MoveList moves) {
+        int row = Bitboards.row(square);
+        if (king.ifMoved() || Bitboards.column(square) != 5) { return; }
+
+        long occupied = board.occupied();
+        long attacked = board.attackMap(opposingTeam(king.getTeamColor()));
+
+        // The king may not castle out of check
+        if ((attacked & (1L << square)) != 0) { return; }
+
+        // Queenside needs b, c and d empty, and the king may not pass through or land on an attacked square
+        if (canCastleWith(board.getPiece(Bitboards.square(row, 1)), king) &&
+                (occupied & (7L << (square - 3))) == 0 && (attacked & (3L << (square - 2))) == 0) {
+            moves.add(PackedMove.of(square, square - 2, null, PackedMove.CASTLING));
+        }
+
+        // Kingside needs f and g empty
+        if (canCastleWith(board.getPiece(Bitboards.square(row, 8)), king) &&
+                (occupied & (3L << (square + 1))) == 0 && (attacked & (3L << (square + 1))) == 0) {
+            moves.add(PackedMove.of(square, square + 2, null, PackedMove.CASTLING));
+        }
+    }
+
+    private static boolean canCastleWith(ChessPiece corner, ChessPiece king) {
+        return corner != null && corner.getPieceType() == ChessPiece.PieceType.ROOK &&
+                corner.getTeamColor() == king.getTeamColor() && !corner.ifMoved();
+    }
+
+    private static void addPawnMoves(ChessBoard board, int square, ChessGame.TeamColor myColor, long occupied,
+                                     long enemy, long allowed, boolean legal, MoveList moves) {
+        int row = Bitboards.row(square);
+        int forward = myColor == ChessGame.TeamColor.WHITE ? 8 : -8;
+        boolean promotes = row == (forward > 0 ? 7 : 2);
+
+        // Move forward one space if unoccupied, and two spaces from the starting row if both are unoccupied
+        int pushed = square + forward;
+        if (pushed >= 0 && pushed < 64 && (occupied & (1L << pushed)) == 0) {
+            if ((allowed & (1L << pushed)) != 0) { addPawnMove(square, pushed, promotes, 0, moves); }
+
+            int doublePushed = pushed + forward;
+            if (row == (forward > 0 ? 2 : 7) && (occupied & (1L << doublePushed)) == 0 &&
+                    (allowed & (1L << doublePushed)) != 0) {
+                moves.add(PackedMove.of(square, doublePushed, null, PackedMove.DOUBLE_PUSH));
+            }
+        }
+
+        // Diagonal attacking
+        long captures = Bitboards.pawnAttacks(myColor, square) & enemy & allowed;
+        while (captures != 0) {
+            int target = Long.numberOfTrailingZeros(captures);
+            captures &= captures - 1;
+
+            addPawnMove(square, target, promotes, PackedMove.CAPTURE, moves);
+        }
+
+        // En passant onto the square behind an adjacent pawn that just moved two spaces. It removes two
+        // pieces from one row, which can expose the king in ways the allowed squares don't show, so
+        // legal generation tries it on the board instead.
+        if (row == (forward > 0 ? 5 : 4)) {
+            long adjacentPawns = Bitboards.kingAttacks(square) & Bitboards.rankMask(row) &
+                    board.pieces(opposingTeam(myColor), ChessPiece.PieceType.PAWN);
+
+            while (adjacentPawns != 0) {
+                int adjacent = Long.numberOfTrailingZeros(adjacentPawns);
+                adjacentPawns &= adjacentPawns - 1;
+
+                if (board.getPiece(adjacent).isEnPassantable()) {
+                    int move = PackedMove.of(square, adjacent + forward, null, PackedMove.CAPTURE | PackedMove.EN_PASSANT);
+                    if (!legal || isLegal(board, move)) { moves.add(move); }
+                }
+            }
+        }
+    }
+
+    private static void addPawnMove(int from, int to, boolean promotes, int flags, MoveList moves) {
+        if (!promotes) {
+            moves.add(PackedMove.of(from, to, null, flags));
+            return;
+        }
+
+        for (ChessPiece.PieceType promotion : PROMOTIONS) {
+            moves.add(PackedMove.of(from, to, promotion, flags));
+        }
+    }
+
+    private static ChessGame.TeamColor opposingTeam(ChessGame.TeamColor teamColor) {
+        return teamColor == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+}
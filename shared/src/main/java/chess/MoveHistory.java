@@ -0,0 +1,176 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The moves made in a game, oldest first, with what each move needs to be taken back.
+ * <p>
+ * Each ply is stored as a packed move (see PackedMove) and a long holding its undo
+ * information, so the history grows by two array slots per move rather than an object.
+ * The undo long holds the captured piece type (ordinal + 1, 0 for none) in bits 0-2, whether
+ * the captured piece had moved in bit 3, whether the moving piece had moved in bit 4, whether
+ * a rook castled in bit 5, whether the capture was en passant in bit 6, the en passant pawn's
+ * square before the move (plus 1, 0 for none) in bits 7-13, and the halfmove clock before the
+ * move from bit 14 up. The position key from before each move is kept as well, so repeated
+ * positions can be found without comparing boards.
+ */
+final class MoveHistory {
+
+    private static final int CAPTURED_MOVED = 1 << 3;
+    private static final int MOVED_BEFORE = 1 << 4;
+    private static final int CASTLED = 1 << 5;
+    private static final int EN_PASSANT = 1 << 6;
+    private static final int EN_PASSANT_SQUARE_SHIFT = 7;
+    private static final int HALFMOVE_CLOCK_SHIFT = 14;
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private int[] moves;
+    private long[] undo;
+    private long[] keys;
+    private int size;
+
+    MoveHistory() {
+        moves = new int[64];
+        undo = new long[64];
+        keys = new long[64];
+    }
+
+    MoveHistory(MoveHistory other) {
+        moves = Arrays.copyOf(other.moves, Math.max(other.size, 64));
+        undo = Arrays.copyOf(other.undo, Math.max(other.size, 64));
+        keys = Arrays.copyOf(other.keys, Math.max(other.size, 64));
+        size = other.size;
+    }
+
+    /**
+     * Adds a move to the end of the history
+     *
+     * @param record the undo record of the move
+     * @param key the position key from before the move
+     */
+    void push(MoveUndo record, long key) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+            undo = Arrays.copyOf(undo, size * 2);
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+
+        ChessMove move = record.move();
+        ChessPiece captured = record.capturedPiece();
+        boolean enPassant = captured != null && record.capturedSquare() != Bitboards.square(move.getEndPosition());
+
+        long info = captured == null ? 0 : captured.getPieceType().ordinal() + 1;
+        if (captured != null && captured.ifMoved()) { info |= CAPTURED_MOVED; }
+        if (record.movedBefore()) { info |= MOVED_BEFORE; }
+        if (record.castledRook() != null) { info |= CASTLED; }
+        if (enPassant) { info |= EN_PASSANT; }
+        info |= (long) (record.enPassantSquare() + 1) << EN_PASSANT_SQUARE_SHIFT;
+        info |= (long) record.halfmoveClock() << HALFMOVE_CLOCK_SHIFT;
+
+        moves[size] = PackedMove.of(move);
+        undo[size] = info;
+        keys[size] = key;
+        ++size;
+    }
+
+    /**
+     * Removes the last move
+     */
+    void pop() {
+        if (size > 0) { --size; }
+    }
+
+    /**
+     * Rebuilds the undo record of the last move from the board it left behind
+     *
+     * @param board the board as the last move left it
+     * @return the record that takes the last move back
+     */
+    MoveUndo last(ChessBoard board) {
+        int packed = moves[size - 1];
+        long info = undo[size - 1];
+        ChessMove move = PackedMove.toChessMove(packed);
+        ChessPiece placed = board.getPiece(PackedMove.to(packed));
+        ChessGame.TeamColor mover = placed.getTeamColor();
+        ChessGame.TeamColor opponent = mover == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+
+        // A promoted pawn was replaced, so bring back a pawn (which had always moved before promoting)
+        ChessPiece movedPiece = placed;
+        if (move.getPromotionPiece() != null) {
+            movedPiece = new ChessPiece(mover, ChessPiece.PieceType.PAWN);
+            movedPiece.flagAsMoved();
+        }
+
+        ChessPiece captured = null;
+        int capturedType = (int) (info & 7);
+        if (capturedType != 0) {
+            captured = new ChessPiece(opponent, TYPES[capturedType - 1]);
+            captured.setMoved((info & CAPTURED_MOVED) != 0);
+        }
+        int capturedSquare = (info & EN_PASSANT) != 0 ?
+                Bitboards.square(move.getStartPosition().getRow(), move.getEndPosition().getColumn()) :
+                PackedMove.to(packed);
+
+        ChessPiece castledRook = null;
+        if ((info & CASTLED) != 0) {
+            boolean queenSide = move.getEndPosition().getColumn() < move.getStartPosition().getColumn();
+            castledRook = board.getPiece(PackedMove.to(packed) + (queenSide ? 1 : -1));
+        }
+
+        int enPassantSquare = (int) ((info >>> EN_PASSANT_SQUARE_SHIFT) & 0x7F) - 1;
+        int halfmoveClock = (int) (info >>> HALFMOVE_CLOCK_SHIFT);
+
+        return new MoveUndo(move, movedPiece, (info & MOVED_BEFORE) != 0, captured, capturedSquare,
+                castledRook, enPassantSquare, mover, halfmoveClock);
+    }
+
+    /**
+     * @return how many moves have been made
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the packed move made at the ply, starting from 0
+     */
+    int move(int ply) {
+        return moves[ply];
+    }
+
+    /**
+     * Counts earlier positions with the same key, looking back only over the given number of moves.
+     * Positions are only compared with those two, four, six... moves back, since the same team
+     * must be to move for them to repeat.
+     *
+     * @param key the key of the current position
+     * @param plies how many moves back a repeat is possible, i.e. the halfmove clock
+     * @return how many times the position occurred before
+     */
+    int repetitions(long key, int plies) {
+        int count = 0;
+        int oldest = Math.max(size - plies, 0);
+
+        for (int ply = size - 2; ply >= oldest; ply -= 2) {
+            if (keys[ply] == key) { ++count; }
+        }
+        return count;
+    }
+
+    /**
+     * @return the moves as a list, oldest first
+     */
+    List<ChessMove> toList() {
+        ChessMove[] list = new ChessMove[size];
+        for (int ply = 0; ply < size; ++ply) {
+            list[ply] = PackedMove.toChessMove(moves[ply]);
+        }
+        return List.of(list);
+    }
+
+    void clear() {
+        size = 0;
+    }
+}
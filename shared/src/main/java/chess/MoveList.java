@@ -0,0 +1,49 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A reusable buffer of packed moves. Clearing and refilling the same list lets move
+ * generation run without creating objects.
+ */
+public final class MoveList {
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        // No chess position has more than 218 legal moves
+        moves = new int[256];
+    }
+
+    public void add(int move) {
+        if (size == moves.length) { moves = Arrays.copyOf(moves, size * 2); }
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return the moves in this list as ChessMoves
+     */
+    public ArrayList<ChessMove> toChessMoves() {
+        ArrayList<ChessMove> chessMoves = new ArrayList<>(size);
+
+        for (int i = 0; i < size; ++i) {
+            chessMoves.add(PackedMove.toChessMove(moves[i]));
+        }
+
+        return chessMoves;
+    }
+}
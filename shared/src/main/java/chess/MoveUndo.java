@@ -0,0 +1,20 @@
+package chess;
+
+/**
+ * Records everything a move changed so that ChessGame can take it back in place
+ *
+ * @param move the move that was made
+ * @param movedPiece the piece that moved (the pawn itself when promoting)
+ * @param movedBefore whether the moving piece had moved before this move
+ * @param capturedPiece the piece that was captured, or null if nothing was captured
+ * @param capturedSquare the square the captured piece stood on (differs from the end square for en passant)
+ * @param castledRook the rook that jumped the king, or null if the move was not castling
+ * @param enPassantSquare the square of the pawn that was en passantable before the move, or -1 if none was
+ * @param teamTurn whose turn it was before the move
+ * @param halfmoveClock the halfmove clock before the move
+ */
+public record MoveUndo(ChessMove move, ChessPiece movedPiece, boolean movedBefore,
+                       ChessPiece capturedPiece, int capturedSquare, ChessPiece castledRook,
+                       int enPassantSquare, ChessGame.TeamColor teamTurn, int halfmoveClock) {
+
+}
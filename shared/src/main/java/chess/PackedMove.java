@@ -0,0 +1,87 @@
+package chess;
+
+/**
+ * Packs a move into a single int so moves can be generated and stored without creating objects.
+ * <p>
+ * Bits 0-5 hold the start square and bits 6-11 the end square (0 is a1, 63 is h8), bits 12-14
+ * hold the promotion piece (0 for none, otherwise PieceType ordinal + 1), and the remaining
+ * bits are flags describing the move.
+ */
+public final class PackedMove {
+
+    public static final int CAPTURE = 1 << 15;
+    public static final int DOUBLE_PUSH = 1 << 16;
+    public static final int EN_PASSANT = 1 << 17;
+    public static final int CASTLING = 1 << 18;
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private PackedMove() {
+
+    }
+
+    /**
+     * @param from the start square
+     * @param to the end square
+     * @param promotion the piece to promote to, or null
+     * @param flags any of CAPTURE, DOUBLE_PUSH, EN_PASSANT and CASTLING
+     * @return the packed move
+     */
+    public static int of(int from, int to, ChessPiece.PieceType promotion, int flags) {
+        return from | (to << 6) | (promotion == null ? 0 : (promotion.ordinal() + 1) << 12) | flags;
+    }
+
+    /**
+     * Packs a move without any flags, for comparing with generated moves using sameMove
+     */
+    public static int of(ChessMove move) {
+        return of(Bitboards.square(move.getStartPosition()), Bitboards.square(move.getEndPosition()),
+                move.getPromotionPiece(), 0);
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    /**
+     * @return the piece to promote to, or null if the move is not a promotion
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        int type = (move >>> 12) & 7;
+        return type == 0 ? null : TYPES[type - 1];
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    public static boolean isDoublePush(int move) {
+        return (move & DOUBLE_PUSH) != 0;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return (move & EN_PASSANT) != 0;
+    }
+
+    public static boolean isCastling(int move) {
+        return (move & CASTLING) != 0;
+    }
+
+    /**
+     * @return whether two moves have the same start, end and promotion, ignoring flags
+     */
+    public static boolean sameMove(int move, int other) {
+        return (move & 0x7FFF) == (other & 0x7FFF);
+    }
+
+    /**
+     * @return the move as a ChessMove
+     */
+    public static ChessMove toChessMove(int move) {
+        return ChessMove.of(from(move), to(move), promotion(move));
+    }
+}
@@ -0,0 +1,241 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Performance test (perft) for the move generator. Perft counts every leaf of the
+ * legal move tree to a fixed depth, which can be compared with published counts to
+ * prove move generation is correct, and timed to measure how fast it is.
+ * <p>
+ * Run with no arguments to check every reference position, or with
+ * <code>[--divide] [--parallel] &lt;depth&gt; [fen]</code> to count a single position.
+ */
+public class Perft {
+
+    /**
+     * A position with known perft counts
+     *
+     * @param name what the position is commonly called
+     * @param fen the position in FEN
+     * @param nodes the expected leaf count at depth 1, 2, 3, ...
+     */
+    public record Reference(String name, String fen, long... nodes) { }
+
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    public static final List<Reference> REFERENCE_POSITIONS = List.of(
+            new Reference("Start position", START_FEN,
+                    20, 400, 8902, 197281, 4865609),
+            new Reference("Kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                    48, 2039, 97862, 4085603),
+            new Reference("Position 3", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                    14, 191, 2812, 43238, 674624),
+            new Reference("Position 4", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                    6, 264, 9467, 422333),
+            new Reference("Position 5", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                    44, 1486, 62379, 2103487),
+            new Reference("Position 6", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                    46, 2079, 89890, 3894594)
+    );
+
+    private Perft() {
+
+    }
+
+    /**
+     * Counts the leaves of the legal move tree from a position
+     *
+     * @param game the position to count from, which is left unchanged
+     * @param depth how many moves deep to count
+     * @return the number of leaf positions
+     */
+    public static long perft(ChessGame game, int depth) {
+        if (depth == 0) { return 1; }
+
+        Collection<ChessMove> moves = legalMoves(game);
+
+        // The leaves one move away are just the legal moves, so there is no need to make them
+        if (depth == 1) { return moves.size(); }
+
+        long nodes = 0;
+        for (ChessMove move : moves) {
+            MoveUndo undo = game.applyMove(move);
+            nodes += perft(game, depth - 1);
+            game.unmakeMove(undo);
+        }
+
+        return nodes;
+    }
+
+    /**
+     * Counts the leaves below each legal move, which helps narrow down where a count goes wrong
+     *
+     * @param game the position to count from, which is left unchanged
+     * @param depth how many moves deep to count, including the root move
+     * @return the leaf count for each root move, in generation order
+     */
+    public static Map<ChessMove, Long> divide(ChessGame game, int depth) {
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+
+        for (ChessMove move : legalMoves(game)) {
+            MoveUndo undo = game.applyMove(move);
+            counts.put(move, perft(game, depth - 1));
+            game.unmakeMove(undo);
+        }
+
+        return counts;
+    }
+
+    /**
+     * Counts the leaves of the legal move tree, splitting the root moves across a fork-join pool.
+     * Each root move is searched on its own copy of the game.
+     *
+     * @param game the position to count from, which is left unchanged
+     * @param depth how many moves deep to count
+     * @param pool the pool to run the root moves on
+     * @return the number of leaf positions
+     */
+    public static long parallelPerft(ChessGame game, int depth, ForkJoinPool pool) {
+        if (depth <= 1) { return perft(game, depth); }
+
+        return pool.invoke(new RootTask(game, depth));
+    }
+
+    /**
+     * Splits the root moves into one task each, so they are forked from inside the pool
+     */
+    private static class RootTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final ChessGame game;
+        private final int depth;
+
+        RootTask(ChessGame game, int depth) {
+            this.game = game;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            List<RootMoveTask> tasks = new ArrayList<>();
+            for (ChessMove move : legalMoves(game)) {
+                tasks.add(new RootMoveTask(game, move, depth));
+            }
+
+            long nodes = 0;
+            for (RootMoveTask task : invokeAll(tasks)) {
+                nodes += task.join();
+            }
+            return nodes;
+        }
+    }
+
+    /**
+     * Counts the leaves below one root move on a private copy of the game
+     */
+    private static class RootMoveTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final ChessGame branch;
+        private final int depth;
+
+        RootMoveTask(ChessGame game, ChessMove move, int depth) {
+            // Copy on the submitting thread, before any other task can touch the game
+            branch = new ChessGame(game);
+            branch.applyMove(move);
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            return perft(branch, depth - 1);
+        }
+    }
+
+    /**
+     * Finds every legal move for the team whose turn it is
+     */
+    private static Collection<ChessMove> legalMoves(ChessGame game) {
+        return game.legalMoves(game.getTeamTurn());
+    }
+
+    public static void main(String[] args) {
+        boolean divide = false;
+        boolean parallel = false;
+        int depth = 0;
+        String fen = null;
+
+        for (String arg : args) {
+            switch (arg) {
+                case "--divide" -> divide = true;
+                case "--parallel" -> parallel = true;
+                default -> {
+                    if (depth == 0) {
+                        depth = Integer.parseInt(arg);
+                    } else {
+                        fen = fen == null ? arg : fen + " " + arg;
+                    }
+                }
+            }
+        }
+
+        ForkJoinPool pool = parallel ? ForkJoinPool.commonPool() : null;
+
+        if (depth == 0) {
+            runReferencePositions(pool);
+            return;
+        }
+
+        ChessGame game = Fen.parse(fen == null ? START_FEN : fen);
+
+        if (divide) {
+            long start = System.nanoTime();
+            long total = 0;
+            for (Map.Entry<ChessMove, Long> entry : divide(game, depth).entrySet()) {
+                System.out.println(entry.getKey() + ": " + entry.getValue());
+                total += entry.getValue();
+            }
+            report("Total", depth, total, System.nanoTime() - start);
+        } else {
+            long start = System.nanoTime();
+            long nodes = pool != null ? parallelPerft(game, depth, pool) : perft(game, depth);
+            report("Nodes", depth, nodes, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Counts every reference position to every known depth and reports any mismatches
+     */
+    private static void runReferencePositions(ForkJoinPool pool) {
+        int failures = 0;
+
+        for (Reference reference : REFERENCE_POSITIONS) {
+            ChessGame game = Fen.parse(reference.fen());
+
+            for (int depth = 1; depth <= reference.nodes().length; ++depth) {
+                long start = System.nanoTime();
+                long nodes = pool != null ? parallelPerft(game, depth, pool) : perft(game, depth);
+                report(reference.name(), depth, nodes, System.nanoTime() - start);
+
+                if (nodes != reference.nodes()[depth - 1]) {
+                    System.out.println("  MISMATCH: expected " + reference.nodes()[depth - 1]);
+                    ++failures;
+                }
+            }
+        }
+
+        System.out.println(failures == 0 ? "All perft counts match." : failures + " perft counts did not match.");
+    }
+
+    private static void report(String label, int depth, long nodes, long nanos) {
+        double seconds = nanos / 1e9;
+        System.out.printf("%-16s depth %d: %,12d nodes in %8.3f s (%,.0f nodes/sec)%n",
+                label, depth, nodes, seconds, nodes / Math.max(seconds, 1e-9));
+    }
+}
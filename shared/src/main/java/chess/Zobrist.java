@@ -0,0 +1,80 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing. A position's key is the XOR of the key of every
+ * piece on its square plus keys for the side to move, castling rights, and en passant
+ * file, so moving a piece only takes a couple of XORs to update the key.
+ */
+final class Zobrist {
+
+    private static final long[][] PIECES = new long[12][64];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+    private static final long BLACK_TO_MOVE;
+
+    // Castling rights are stored as bits of a single int
+    static final int WHITE_KINGSIDE = 1;
+    static final int WHITE_QUEENSIDE = 2;
+    static final int BLACK_KINGSIDE = 4;
+    static final int BLACK_QUEENSIDE = 8;
+
+    static {
+        // A fixed seed keeps keys identical across runs, so keys can be stored and compared later
+        SplittableRandom random = new SplittableRandom(0x2B1D_C240L);
+
+        for (long[] squares : PIECES) {
+            for (int square = 0; square < squares.length; ++square) {
+                squares[square] = random.nextLong();
+            }
+        }
+
+        // No castling rights hashes to 0, then each right adds its own key
+        long[] rightKeys = {random.nextLong(), random.nextLong(), random.nextLong(), random.nextLong()};
+        for (int rights = 0; rights < CASTLING.length; ++rights) {
+            for (int bit = 0; bit < rightKeys.length; ++bit) {
+                if ((rights & (1 << bit)) != 0) { CASTLING[rights] ^= rightKeys[bit]; }
+            }
+        }
+
+        for (int file = 0; file < EN_PASSANT_FILE.length; ++file) {
+            EN_PASSANT_FILE[file] = random.nextLong();
+        }
+
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+
+    }
+
+    /**
+     * @return the key of a piece standing on a square
+     */
+    static long piece(ChessGame.TeamColor color, ChessPiece.PieceType type, int square) {
+        return PIECES[Bitboards.side(color) * 6 + type.ordinal()][square];
+    }
+
+    /**
+     * @return the key for whose turn it is
+     */
+    static long side(ChessGame.TeamColor teamTurn) {
+        return teamTurn == ChessGame.TeamColor.BLACK ? BLACK_TO_MOVE : 0L;
+    }
+
+    /**
+     * @return the key for a set of castling rights
+     */
+    static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    /**
+     * @param column the column of the en passant target, or 0 if there is none
+     * @return the key for the en passant column
+     */
+    static long enPassant(int column) {
+        return column == 0 ? 0L : EN_PASSANT_FILE[column - 1];
+    }
+}
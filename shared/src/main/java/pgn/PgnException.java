@@ -0,0 +1,12 @@
+package pgn;
+
+/**
+ * Indicates PGN text or a SAN move that could not be read
+ */
+public class PgnException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    public PgnException(String message) {
+        super(message);
+    }
+}
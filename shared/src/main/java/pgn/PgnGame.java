@@ -0,0 +1,21 @@
+package pgn;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A game as read from PGN, before its moves have been checked
+ *
+ * @param tags the tag pairs in the order they appeared, e.g. White, Black, Result
+ * @param moves the moves in standard algebraic notation, without move numbers, comments or variations
+ * @param result the game termination marker: 1-0, 0-1, 1/2-1/2 or *
+ */
+public record PgnGame(Map<String, String> tags, List<String> moves, String result) {
+
+    /**
+     * @return the value of a tag, or null if the game doesn't have it
+     */
+    public String tag(String name) {
+        return tags.get(name);
+    }
+}
@@ -0,0 +1,149 @@
+package pgn;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.MoveList;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Loads PGN collections into games. One thread streams the file while a pool of workers
+ * replays and validates the games, with the number of games waiting in memory bounded.
+ */
+public final class PgnImporter {
+
+    /**
+     * A game that replayed successfully
+     *
+     * @param pgn the game as it was read
+     * @param game the final position
+     * @param moves every move played, in order
+     */
+    public record ImportedGame(PgnGame pgn, ChessGame game, List<ChessMove> moves) { }
+
+    /**
+     * Totals from an import
+     *
+     * @param games how many games replayed successfully
+     * @param moves how many moves those games contained
+     * @param failures how many games had a malformed tag, an illegal or unreadable move, or were
+     *                 rejected by the consumer
+     * @param nanos how long the import took
+     */
+    public record Result(long games, long moves, long failures, long nanos) {
+        public double gamesPerSecond() {
+            return games / Math.max(nanos / 1e9, 1e-9);
+        }
+    }
+
+    // Games each worker may have queued before the reader waits for them to catch up
+    private static final int QUEUED_GAMES_PER_THREAD = 64;
+
+    private PgnImporter() {
+
+    }
+
+    /**
+     * Replays a game's moves, starting from its FEN tag if it has one
+     *
+     * @param pgn the game to replay
+     * @return the replayed game
+     * @throws PgnException if a move is not legal or the FEN tag is malformed
+     */
+    public static ImportedGame replay(PgnGame pgn) throws PgnException {
+        String fen = pgn.tag("FEN");
+        ChessGame game;
+        try {
+            game = fen != null ? ChessGame.fromFen(fen) : new ChessGame();
+        } catch (IllegalArgumentException e) {
+            throw new PgnException("Invalid FEN: " + e.getMessage());
+        }
+
+        MoveList buffer = new MoveList();
+        List<ChessMove> moves = new ArrayList<>(pgn.moves().size());
+        for (String san : pgn.moves()) {
+            ChessMove move = San.parse(game, san, buffer);
+            game.applyMove(move);
+            moves.add(move);
+        }
+
+        return new ImportedGame(pgn, game, moves);
+    }
+
+    /**
+     * Streams every game in a PGN file through a pool of workers
+     *
+     * @param path the file to import
+     * @param threads how many workers replay games
+     * @param consumer receives each game that replays successfully, called from the worker threads
+     * @return totals for the import
+     * @throws IOException if the file can't be read
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public static Result importFile(Path path, int threads, Consumer<ImportedGame> consumer)
+            throws IOException, InterruptedException {
+        AtomicLong games = new AtomicLong();
+        AtomicLong moves = new AtomicLong();
+        AtomicLong failures = new AtomicLong();
+        Semaphore queued = new Semaphore(threads * QUEUED_GAMES_PER_THREAD);
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+
+        try (PgnReader reader = PgnReader.open(path)) {
+            while (true) {
+                PgnGame pgn;
+                try {
+                    pgn = reader.next();
+                } catch (PgnException e) {
+                    // A malformed tag only costs its own game
+                    failures.incrementAndGet();
+                    reader.skipGame();
+                    continue;
+                }
+                if (pgn == null) { break; }
+
+                queued.acquire();
+
+                PgnGame current = pgn;
+                workers.execute(() -> {
+                    try {
+                        ImportedGame imported = replay(current);
+                        consumer.accept(imported);
+                        games.incrementAndGet();
+                        moves.addAndGet(imported.moves().size());
+                    } catch (PgnException | RuntimeException e) {
+                        failures.incrementAndGet();
+                    } finally {
+                        queued.release();
+                    }
+                });
+            }
+        } finally {
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+
+        return new Result(games.get(), moves.get(), failures.get(), System.nanoTime() - start);
+    }
+
+    /**
+     * Imports a PGN file and reports how fast it went.
+     * Usage: <code>&lt;file&gt; [threads]</code>
+     */
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        Result result = importFile(Path.of(args[0]), threads, game -> { });
+
+        System.out.printf("%,d games (%,d moves) in %.3f s: %,.0f games/sec, %,d failed%n",
+                result.games(), result.moves(), result.nanos() / 1e9, result.gamesPerSecond(), result.failures());
+    }
+}
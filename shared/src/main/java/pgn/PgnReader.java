@@ -0,0 +1,241 @@
+package pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads games one at a time from PGN text. Only the game being read is held in memory, so
+ * collections of any size can be read through a fixed-size buffer.
+ * <p>
+ * Comments, variations, numeric annotation glyphs and move numbers are skipped; what's left
+ * of the movetext is the SAN of each move, which is not checked until the game is replayed.
+ */
+public class PgnReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    public PgnReader(ReadableByteChannel channel) {
+        reader = Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), BUFFER_SIZE);
+    }
+
+    public PgnReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Opens a PGN file for reading
+     *
+     * @param path the file to read
+     * @return a reader over the file's games
+     * @throws IOException if the file can't be opened
+     */
+    public static PgnReader open(Path path) throws IOException {
+        return new PgnReader(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    /**
+     * Reads the next game
+     *
+     * @return the game, or null if there are no more games
+     * @throws IOException if the text can't be read
+     * @throws PgnException if a tag pair is malformed
+     */
+    public PgnGame next() throws IOException, PgnException {
+        Map<String, String> tags = new LinkedHashMap<>();
+        List<String> moves = new ArrayList<>();
+
+        while (true) {
+            int c = skipWhitespace();
+
+            if (c == -1) {
+                return tags.isEmpty() && moves.isEmpty() ? null : new PgnGame(tags, moves, "*");
+            }
+
+            switch (c) {
+                case '[' -> {
+                    // Tags after movetext with no result start the next game
+                    if (!moves.isEmpty()) {
+                        --position;
+                        return new PgnGame(tags, moves, "*");
+                    }
+                    readTag(tags);
+                }
+                case '{' -> skipPast('}');
+                case ';', '%' -> skipPast('\n');
+                case '(' -> skipVariation();
+                case '$' -> readToken(c);
+                default -> {
+                    String token = readToken(c);
+                    if (isResult(token)) { return new PgnGame(tags, moves, token); }
+
+                    // Drop a move number such as "12." or "12..." and keep any move written right after it
+                    int start = 0;
+                    while (start < token.length() && Character.isDigit(token.charAt(start))) { ++start; }
+                    if (start < token.length() && token.charAt(start) == '.') {
+                        while (start < token.length() && token.charAt(start) == '.') { ++start; }
+                        token = token.substring(start);
+                    }
+
+                    if (!token.isEmpty()) { moves.add(token); }
+                }
+            }
+        }
+    }
+
+    /**
+     * Skips the rest of the game being read, so reading can carry on after a malformed tag.
+     * The rest of the bad tag's line is dropped, along with any other tags and the movetext up to
+     * the game's result or the next game's tags.
+     *
+     * @throws IOException if the text can't be read
+     */
+    public void skipGame() throws IOException {
+        skipPast('\n');
+        boolean movetext = false;
+
+        while (true) {
+            int c = skipWhitespace();
+
+            switch (c) {
+                case -1 -> { return; }
+                case '[' -> {
+                    if (movetext) {
+                        --position;
+                        return;
+                    }
+                    skipPast('\n');
+                }
+                case '{' -> skipPast('}');
+                case ';', '%' -> skipPast('\n');
+                case '(' -> skipVariation();
+                default -> {
+                    if (isResult(readToken(c))) { return; }
+                    movetext = true;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static boolean isResult(String token) {
+        return token.equals("1-0") || token.equals("0-1") || token.equals("1/2-1/2") || token.equals("*");
+    }
+
+    /**
+     * Reads [Name "Value"] after the opening bracket, allowing backslash escapes in the value
+     */
+    private void readTag(Map<String, String> tags) throws IOException, PgnException {
+        StringBuilder name = new StringBuilder();
+        int c = skipWhitespace();
+        while (c != -1 && !Character.isWhitespace(c) && c != '"' && c != ']') {
+            name.append((char) c);
+            c = read();
+        }
+
+        if (Character.isWhitespace(c)) { c = skipWhitespace(); }
+        if (c != '"') { throw new PgnException("Invalid tag [" + name + ": missing value"); }
+
+        StringBuilder value = new StringBuilder();
+        for (c = read(); c != '"'; c = read()) {
+            if (c == -1 || c == '\n') {
+                // Leave the line break, so skipGame only drops the rest of this line
+                if (c == '\n') { --position; }
+                throw new PgnException("Invalid tag [" + name + ": unterminated value");
+            }
+            if (c == '\\') { c = read(); }
+            value.append((char) c);
+        }
+
+        if (skipWhitespace() != ']') { throw new PgnException("Invalid tag [" + name + ": missing ]"); }
+        tags.put(name.toString(), value.toString());
+    }
+
+    /**
+     * Reads a token of movetext that starts with the given character
+     */
+    private String readToken(int first) throws IOException {
+        StringBuilder token = new StringBuilder(8).append((char) first);
+
+        for (int c = read(); c != -1; c = read()) {
+            if (Character.isWhitespace(c) || "{}()[];$".indexOf(c) >= 0) {
+                --position;
+                break;
+            }
+            token.append((char) c);
+        }
+
+        return token.toString();
+    }
+
+    /**
+     * Skips a variation after its opening parenthesis, along with any nested variations and comments
+     */
+    private void skipVariation() throws IOException {
+        int depth = 1;
+
+        while (depth > 0) {
+            int c = read();
+            switch (c) {
+                case -1 -> { return; }
+                case '(' -> ++depth;
+                case ')' -> --depth;
+                case '{' -> skipPast('}');
+                case ';' -> skipPast('\n');
+                default -> { }
+            }
+        }
+    }
+
+    private void skipPast(char end) throws IOException {
+        for (int c = read(); c != -1 && c != end; c = read()) { }
+    }
+
+    private int skipWhitespace() throws IOException {
+        int c = read();
+        while (c != -1 && Character.isWhitespace(c)) { c = read(); }
+        return c;
+    }
+
+    /**
+     * @return the next character, or -1 at the end of the text. The last character read can be
+     * pushed back by decrementing position, since refilling only happens once the buffer is used up.
+     */
+    private int read() throws IOException {
+        if (position == limit) {
+            // Keep the last character at the front so it can still be pushed back
+            if (limit > 0) {
+                buffer[0] = buffer[limit - 1];
+                position = 1;
+            }
+
+            int count = reader.read(buffer, position, buffer.length - position);
+            if (count <= 0) {
+                limit = position;
+                return -1;
+            }
+            limit = position + count;
+        }
+
+        return buffer[position++];
+    }
+}
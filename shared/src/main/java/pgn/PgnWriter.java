@@ -0,0 +1,151 @@
+package pgn;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.GameStatus;
+import chess.InvalidMoveException;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes games as PGN, with the seven standard tags first and the moves in SAN
+ */
+public final class PgnWriter {
+
+    private static final String[] SEVEN_TAG_ROSTER = {"Event", "Site", "Date", "Round", "White", "Black", "Result"};
+    private static final int LINE_LENGTH = 79;
+
+    private PgnWriter() {
+
+    }
+
+    /**
+     * Writes a game's recorded moves as PGN text
+     *
+     * @param tags tag pairs to include, missing standard tags are written as unknown
+     * @param game the game to write, which is left unchanged
+     * @return the game in PGN
+     */
+    public static String write(Map<String, String> tags, ChessGame game) {
+        List<ChessMove> moves = game.getMoveHistory();
+        ChessGame start = new ChessGame(game);
+        for (int i = 0; i < moves.size(); ++i) { start.undoMove(); }
+
+        try {
+            return write(tags, start, moves);
+        } catch (InvalidMoveException e) {
+            // The moves were already made in this game
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Writes a game as PGN text
+     *
+     * @param tags tag pairs to include, missing standard tags are written as unknown
+     * @param start the position the moves start from, which is left unchanged
+     * @param moves the moves played from the start position
+     * @return the game in PGN
+     * @throws InvalidMoveException if a move is not legal where it is played
+     */
+    public static String write(Map<String, String> tags, ChessGame start, List<ChessMove> moves) throws InvalidMoveException {
+        StringWriter out = new StringWriter();
+        try {
+            write(out, tags, start, moves);
+        } catch (IOException e) {
+            // A StringWriter never fails
+            throw new IllegalStateException(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Writes a game as PGN, followed by a blank line so games can be written one after another
+     *
+     * @param out where to write the game
+     * @param tags tag pairs to include, missing standard tags are written as unknown
+     * @param start the position the moves start from, which is left unchanged
+     * @param moves the moves played from the start position
+     * @throws InvalidMoveException if a move is not legal where it is played
+     * @throws IOException if writing fails
+     */
+    public static void write(Writer out, Map<String, String> tags, ChessGame start, List<ChessMove> moves)
+            throws InvalidMoveException, IOException {
+        // Work out the movetext first, since the result may come from the final position
+        ChessGame game = new ChessGame(start);
+        StringBuilder movetext = new StringBuilder();
+        int lineStart = 0;
+
+        for (int i = 0; i < moves.size(); ++i) {
+            StringBuilder token = new StringBuilder();
+            if (game.getTeamTurn() == ChessGame.TeamColor.WHITE) {
+                token.append(game.getFullmoveNumber()).append(". ");
+            } else if (i == 0) {
+                token.append(game.getFullmoveNumber()).append("... ");
+            }
+            token.append(San.format(game, moves.get(i)));
+            game.makeMove(moves.get(i));
+
+            lineStart = append(movetext, token, lineStart);
+        }
+
+        String result = tags.getOrDefault("Result", result(game));
+        append(movetext, new StringBuilder(result), lineStart);
+
+        for (String name : SEVEN_TAG_ROSTER) {
+            String value = name.equals("Result") ? result : tags.getOrDefault(name, name.equals("Date") ? "????.??.??" : "?");
+            writeTag(out, name, value);
+        }
+
+        // A game that doesn't start from the usual position carries its own
+        if (!start.equals(new ChessGame()) && !tags.containsKey("FEN")) {
+            writeTag(out, "SetUp", "1");
+            writeTag(out, "FEN", start.toFen());
+        }
+
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            if (!List.of(SEVEN_TAG_ROSTER).contains(tag.getKey())) { writeTag(out, tag.getKey(), tag.getValue()); }
+        }
+
+        out.write('\n');
+        out.write(movetext.toString());
+        out.write("\n\n");
+    }
+
+    /**
+     * @return the result of a finished position, or * if the game is still going
+     */
+    private static String result(ChessGame game) {
+        GameStatus.State state = game.getStatus().state();
+
+        if (state == GameStatus.State.CHECKMATE) {
+            return game.getTeamTurn() == ChessGame.TeamColor.WHITE ? "0-1" : "1-0";
+        }
+        return state == GameStatus.State.STALEMATE ? "1/2-1/2" : "*";
+    }
+
+    /**
+     * Adds a token to the movetext, starting a new line when the current one would get too long
+     *
+     * @return where the current line starts
+     */
+    private static int append(StringBuilder movetext, CharSequence token, int lineStart) {
+        if (movetext.length() > lineStart && movetext.length() - lineStart + 1 + token.length() > LINE_LENGTH) {
+            movetext.append('\n');
+            lineStart = movetext.length();
+        } else if (movetext.length() > lineStart) {
+            movetext.append(' ');
+        }
+
+        movetext.append(token);
+        return lineStart;
+    }
+
+    private static void writeTag(Writer out, String name, String value) throws IOException {
+        out.write('[' + name + " \"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"]\n");
+    }
+}
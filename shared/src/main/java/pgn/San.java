@@ -0,0 +1,225 @@
+package pgn;
+
+import chess.*;
+
+/**
+ * Converts between moves and standard algebraic notation (SAN), e.g. "Nbd7", "exd6", "e8=Q+" or "O-O"
+ */
+public final class San {
+
+    private San() {
+
+    }
+
+    /**
+     * Finds the legal move a SAN string describes for the team whose turn it is
+     *
+     * @param game the game the move is made in
+     * @param san the move in SAN, with or without check and annotation marks
+     * @return the move
+     * @throws PgnException if the string is not SAN or does not describe exactly one legal move
+     */
+    public static ChessMove parse(ChessGame game, String san) throws PgnException {
+        return parse(game, san, new MoveList());
+    }
+
+    /**
+     * Finds the legal move a SAN string describes, generating moves into a reusable list
+     *
+     * @param game the game the move is made in
+     * @param san the move in SAN, with or without check and annotation marks
+     * @param moves scratch list to generate the legal moves into
+     * @return the move
+     * @throws PgnException if the string is not SAN or does not describe exactly one legal move
+     */
+    public static ChessMove parse(ChessGame game, String san, MoveList moves) throws PgnException {
+        // Drop check, mate and annotation marks
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) { --end; }
+        if (end < 2) { throw invalid(san, "too short"); }
+
+        ChessBoard board = game.getBoard();
+        moves.clear();
+        MoveGenerator.generateLegal(board, game.getTeamTurn(), moves);
+
+        // Castling is written as the side rather than the squares
+        String text = san.substring(0, end).replace('0', 'O');
+        if (text.equals("O-O") || text.equals("O-O-O")) {
+            int direction = text.length() == 3 ? 1 : -1;
+
+            for (int i = 0; i < moves.size(); ++i) {
+                ChessMove move = PackedMove.toChessMove(moves.get(i));
+                if (pieceType(board, move.getStartPosition()) == ChessPiece.PieceType.KING &&
+                        move.getEndPosition().getColumn() - move.getStartPosition().getColumn() == 2 * direction) {
+                    return move;
+                }
+            }
+            throw invalid(san, "castling is not legal");
+        }
+
+        // Promotion, written as "=Q" or just "Q"
+        ChessPiece.PieceType promotion = null;
+        if (Character.isUpperCase(text.charAt(end - 1))) {
+            promotion = pieceType(text.charAt(end - 1));
+            if (promotion == null || promotion == ChessPiece.PieceType.KING) { throw invalid(san, "bad promotion piece"); }
+
+            --end;
+            if (end > 0 && text.charAt(end - 1) == '=') { --end; }
+        }
+
+        if (end < 2) { throw invalid(san, "missing destination"); }
+        int targetCol = text.charAt(end - 2) - 'a' + 1;
+        int targetRow = text.charAt(end - 1) - '0';
+        if (targetCol < 1 || targetCol > 8 || targetRow < 1 || targetRow > 8) { throw invalid(san, "bad destination"); }
+
+        // The piece letter, then an optional start file and/or row to tell apart two pieces
+        int start = 0;
+        ChessPiece.PieceType type = ChessPiece.PieceType.PAWN;
+        if (Character.isUpperCase(text.charAt(0))) {
+            type = pieceType(text.charAt(0));
+            if (type == null) { throw invalid(san, "unknown piece '" + text.charAt(0) + "'"); }
+            start = 1;
+        }
+
+        int fromCol = 0;
+        int fromRow = 0;
+        for (int i = start; i < end - 2; ++i) {
+            char c = text.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromCol = c - 'a' + 1;
+            } else if (c >= '1' && c <= '8') {
+                fromRow = c - '0';
+            } else if (c != 'x' && c != ':' && c != '-') {
+                throw invalid(san, "unexpected '" + c + "'");
+            }
+        }
+
+        ChessMove match = null;
+        for (int i = 0; i < moves.size(); ++i) {
+            ChessMove move = PackedMove.toChessMove(moves.get(i));
+            ChessPosition from = move.getStartPosition();
+            ChessPosition to = move.getEndPosition();
+
+            if (to.getRow() != targetRow || to.getColumn() != targetCol || move.getPromotionPiece() != promotion ||
+                    pieceType(board, from) != type || (fromCol != 0 && from.getColumn() != fromCol) ||
+                    (fromRow != 0 && from.getRow() != fromRow)) {
+                continue;
+            }
+
+            if (match != null) { throw invalid(san, "more than one move matches"); }
+            match = move;
+        }
+
+        if (match == null) { throw invalid(san, "no legal move matches"); }
+        return match;
+    }
+
+    /**
+     * Writes a legal move in SAN, including a check or checkmate mark
+     *
+     * @param game the game the move is made in, which is left unchanged
+     * @param move a legal move for the team whose turn it is
+     * @return the move in SAN
+     */
+    public static String format(ChessGame game, ChessMove move) {
+        ChessBoard board = game.getBoard();
+        ChessPosition from = move.getStartPosition();
+        ChessPosition to = move.getEndPosition();
+        ChessPiece.PieceType type = pieceType(board, from);
+        StringBuilder san = new StringBuilder(8);
+
+        if (type == ChessPiece.PieceType.KING && Math.abs(to.getColumn() - from.getColumn()) == 2) {
+            san.append(to.getColumn() > from.getColumn() ? "O-O" : "O-O-O");
+        } else {
+            // A pawn moving sideways is always a capture, even en passant onto an empty square
+            boolean capture = board.getPiece(to) != null ||
+                    (type == ChessPiece.PieceType.PAWN && to.getColumn() != from.getColumn());
+
+            if (type == ChessPiece.PieceType.PAWN) {
+                if (capture) { san.append(file(from)); }
+            } else {
+                san.append(letter(type));
+                appendDisambiguation(game, move, type, san);
+            }
+
+            if (capture) { san.append('x'); }
+            san.append(file(to)).append(to.getRow());
+            if (move.getPromotionPiece() != null) { san.append('=').append(letter(move.getPromotionPiece())); }
+        }
+
+        MoveUndo undo = game.applyMove(move);
+        GameStatus.State state = game.getStatus().state();
+        game.unmakeMove(undo);
+
+        if (state == GameStatus.State.CHECKMATE) { san.append('#'); }
+        else if (state == GameStatus.State.CHECK) { san.append('+'); }
+
+        return san.toString();
+    }
+
+    /**
+     * Adds the start file, row or both when another piece of the same type can reach the same square
+     */
+    private static void appendDisambiguation(ChessGame game, ChessMove move, ChessPiece.PieceType type, StringBuilder san) {
+        ChessPosition from = move.getStartPosition();
+        boolean ambiguous = false;
+        boolean sameCol = false;
+        boolean sameRow = false;
+
+        for (ChessMove other : game.legalMoves(game.getTeamTurn())) {
+            ChessPosition otherFrom = other.getStartPosition();
+            if (otherFrom.equals(from) || !other.getEndPosition().equals(move.getEndPosition()) ||
+                    pieceType(game.getBoard(), otherFrom) != type) {
+                continue;
+            }
+
+            ambiguous = true;
+            sameCol |= otherFrom.getColumn() == from.getColumn();
+            sameRow |= otherFrom.getRow() == from.getRow();
+        }
+
+        if (!ambiguous) { return; }
+        if (!sameCol) {
+            san.append(file(from));
+        } else if (!sameRow) {
+            san.append(from.getRow());
+        } else {
+            san.append(file(from)).append(from.getRow());
+        }
+    }
+
+    private static ChessPiece.PieceType pieceType(ChessBoard board, ChessPosition position) {
+        ChessPiece piece = board.getPiece(position);
+        return piece == null ? null : piece.getPieceType();
+    }
+
+    private static ChessPiece.PieceType pieceType(char letter) {
+        return switch (letter) {
+            case 'K' -> ChessPiece.PieceType.KING;
+            case 'Q' -> ChessPiece.PieceType.QUEEN;
+            case 'R' -> ChessPiece.PieceType.ROOK;
+            case 'B' -> ChessPiece.PieceType.BISHOP;
+            case 'N' -> ChessPiece.PieceType.KNIGHT;
+            default -> null;
+        };
+    }
+
+    private static char letter(ChessPiece.PieceType type) {
+        return switch (type) {
+            case KING -> 'K';
+            case QUEEN -> 'Q';
+            case ROOK -> 'R';
+            case BISHOP -> 'B';
+            case KNIGHT -> 'N';
+            case PAWN -> 'P';
+        };
+    }
+
+    private static char file(ChessPosition position) {
+        return (char) ('a' + position.getColumn() - 1);
+    }
+
+    private static PgnException invalid(String san, String reason) {
+        return new PgnException("Invalid move \"" + san + "\": " + reason);
+    }
+}
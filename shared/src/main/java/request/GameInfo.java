@@ -1,3 +1,6 @@
 package request;
 
-public record GameInfo(int gameID, String whiteUsername, String blackUsername, String gameName) { }
+/**
+ * What a game listing shows about a game, without its board
+ */
+public record GameInfo(int gameID, String whiteUsername, String blackUsername, String gameName, boolean finished) { }
@@ -1,3 +1,17 @@
 package request;
 
-public record ListRequest(String authToken) { }
+/**
+ * Asks for one page of games, in order of ID. Any filter left null matches every game.
+ *
+ * @param after only list games with a greater ID; the nextCursor of the previous page
+ * @param limit the most games to list, or null for the server's default
+ * @param player only list games this user plays in
+ * @param open only list games with (true) or without (false) an empty seat
+ * @param finished only list finished (true) or ongoing (false) games
+ */
+public record ListRequest(String authToken, Integer after, Integer limit, String player, Boolean open, Boolean finished) {
+
+    public ListRequest(String authToken) {
+        this(authToken, null, null, null, null, null);
+    }
+}
@@ -1,7 +1,9 @@
 package request;
 
-import model.GameData;
-
 import java.util.ArrayList;
 
-public record ListResult(ArrayList<GameData> games) { }
+/**
+ * @param nextCursor what to pass as after to get the next page, or null on the last page
+ * @param total how many games match the filters; only counted for the first page, null on later pages
+ */
+public record ListResult(ArrayList<GameInfo> games, Integer nextCursor, Integer total) { }
@@ -0,0 +1,61 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+public class AttackTests {
+
+    private static final int E1 = Bitboards.square(1, 5);
+    private static final int E8 = Bitboards.square(8, 5);
+    private static final int D3 = Bitboards.square(3, 4);
+
+    @Test
+    @DisplayName("Double Check Attackers Test")
+    public void doubleCheckTest() {
+        ChessGame game = ChessGame.fromFen("4r2k/8/8/8/8/3n4/8/4K3 w - - 0 1");
+        ChessBoard board = game.getBoard();
+
+        Assertions.assertEquals((1L << E8) | (1L << D3), board.checkers(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(board.checkers(ChessGame.TeamColor.WHITE),
+                board.attackersOf(E1, ChessGame.TeamColor.BLACK, board.occupied()));
+        Assertions.assertTrue(game.isInCheck(ChessGame.TeamColor.WHITE));
+
+        // Only the king can answer a double check
+        for (ChessMove move : game.legalMoves(ChessGame.TeamColor.WHITE)) {
+            Assertions.assertEquals(ChessPosition.of(1, 5), move.getStartPosition());
+        }
+    }
+
+    @Test
+    @DisplayName("Discovered Check Attackers Test")
+    public void discoveredCheckTest() {
+        ChessGame game = ChessGame.fromFen("4r2k/8/8/4n3/8/8/8/4K3 b - - 0 1");
+        ChessBoard board = game.getBoard();
+
+        Assertions.assertEquals(0, board.checkers(ChessGame.TeamColor.WHITE));
+        Assertions.assertFalse(game.isInCheck(ChessGame.TeamColor.WHITE));
+
+        // Through an empty e5 the rook would attack the king
+        long withoutKnight = board.occupied() & ~(1L << Bitboards.square(5, 5));
+        Assertions.assertEquals(1L << E8, board.attackersOf(E1, ChessGame.TeamColor.BLACK, withoutKnight));
+
+        // The knight steps aside, uncovering the rook
+        MoveUndo undo = game.applyMove(ChessMove.of(ChessPosition.of(5, 5), ChessPosition.of(4, 3), null));
+        Assertions.assertEquals(1L << E8, board.checkers(ChessGame.TeamColor.WHITE));
+        Assertions.assertTrue(game.isInCheck(ChessGame.TeamColor.WHITE));
+
+        game.unmakeMove(undo);
+        Assertions.assertEquals(0, board.checkers(ChessGame.TeamColor.WHITE));
+        Assertions.assertFalse(game.isInCheck(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    @DisplayName("Pawn And King Attackers Test")
+    public void pawnAndKingAttackersTest() {
+        ChessBoard board = ChessBoard.fromFen("8/8/8/3p4/4K3/8/8/k7");
+        int e4 = Bitboards.square(4, 5);
+
+        Assertions.assertEquals(1L << Bitboards.square(5, 4), board.attackersOf(e4, ChessGame.TeamColor.BLACK, board.occupied()));
+        Assertions.assertEquals(0, board.attackersOf(e4, ChessGame.TeamColor.WHITE, board.occupied()));
+        Assertions.assertEquals(0, board.checkers(ChessGame.TeamColor.BLACK));
+    }
+}
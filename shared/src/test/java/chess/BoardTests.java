@@ -0,0 +1,119 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import java.util.Random;
+
+public class BoardTests {
+
+    private static final ChessGame.TeamColor[] COLORS = ChessGame.TeamColor.values();
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    @Test
+    @DisplayName("Reset Board Bitboards Test")
+    public void resetBoardTest() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+
+        assertInSync(board);
+        Assertions.assertEquals(0xFFFF00000000FFFFL, board.occupied());
+        Assertions.assertEquals(0xFF00L, board.pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+    }
+
+    @Test
+    @DisplayName("Set Board Bitboards Test")
+    public void setBoardTest() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+
+        // Copying over a board with pieces already on it must drop the old pieces' bits
+        board.setBoard(ChessBoard.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R"));
+
+        assertInSync(board);
+        Assertions.assertEquals(32, Long.bitCount(board.occupied()));
+    }
+
+    @Test
+    @DisplayName("Add And Remove Piece Bitboards Test")
+    public void addPieceTest() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+
+        // Replacing a piece clears the bits of the piece that was there
+        board.addPiece(ChessPosition.of(2, 5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        assertInSync(board);
+        Assertions.assertEquals(0, board.pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN) & (1L << 12));
+
+        board.addPiece(ChessPosition.of(5, 4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        board.removePiece(ChessPosition.of(1, 1));
+        board.removePiece(ChessPosition.of(4, 4));
+        assertInSync(board);
+    }
+
+    @Test
+    @DisplayName("Sliding Attacks Match Rays Test")
+    public void slidingAttacksTest() {
+        Random random = new Random(1);
+
+        for (int i = 0; i < 1000; ++i) {
+            // Sparse boards, so rays run a few squares before hitting something
+            long occupied = random.nextLong() & random.nextLong() & random.nextLong();
+            int square = random.nextInt(64);
+
+            Assertions.assertEquals(rays(square, occupied, new int[][]{{1, 0}, {-1, 0}, {0, 1}, {0, -1}}),
+                    Bitboards.rookAttacks(square, occupied), "rook on " + square);
+            Assertions.assertEquals(rays(square, occupied, new int[][]{{1, 1}, {1, -1}, {-1, 1}, {-1, -1}}),
+                    Bitboards.bishopAttacks(square, occupied), "bishop on " + square);
+        }
+    }
+
+    /**
+     * Walks each direction from a square until it leaves the board or reaches an occupied square
+     */
+    private static long rays(int square, long occupied, int[][] directions) {
+        long attacks = 0L;
+
+        for (int[] direction : directions) {
+            int row = square / 8 + direction[0];
+            int col = square % 8 + direction[1];
+
+            while (row >= 0 && row < 8 && col >= 0 && col < 8) {
+                attacks |= 1L << (row * 8 + col);
+                if ((occupied & (1L << (row * 8 + col))) != 0) { break; }
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+
+        return attacks;
+    }
+
+    /**
+     * Checks that every bitboard holds exactly the squares its pieces are on
+     */
+    private static void assertInSync(ChessBoard board) {
+        long occupied = 0L;
+
+        for (ChessGame.TeamColor color : COLORS) {
+            long team = 0L;
+
+            for (ChessPiece.PieceType type : TYPES) {
+                long expected = 0L;
+                for (int square = 0; square < 64; ++square) {
+                    ChessPiece piece = board.getPiece(Bitboards.position(square));
+                    if (piece != null && piece.getTeamColor() == color && piece.getPieceType() == type) {
+                        expected |= 1L << square;
+                    }
+                }
+
+                Assertions.assertEquals(expected, board.pieces(color, type), color + " " + type);
+                team |= expected;
+            }
+
+            Assertions.assertEquals(team, board.pieces(color), color.toString());
+            occupied |= team;
+        }
+
+        Assertions.assertEquals(occupied, board.occupied());
+    }
+}
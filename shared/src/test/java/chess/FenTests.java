@@ -0,0 +1,55 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+public class FenTests {
+
+    @Test
+    @DisplayName("Reference Positions Round Trip Test")
+    public void roundTripTest() {
+        for (Perft.Reference reference : Perft.REFERENCE_POSITIONS) {
+            Assertions.assertEquals(reference.fen(), ChessGame.fromFen(reference.fen()).toFen(), reference.name());
+        }
+    }
+
+    @Test
+    @DisplayName("New Game FEN Test")
+    public void newGameTest() {
+        Assertions.assertEquals(Perft.START_FEN, new ChessGame().toFen());
+        Assertions.assertEquals(new ChessGame(), ChessGame.fromFen(Perft.START_FEN));
+    }
+
+    @Test
+    @DisplayName("Clocks Follow Moves Test")
+    public void clocksTest() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", game.toFen());
+
+        MoveUndo undo = game.applyMove(ChessMove.of(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null));
+        Assertions.assertEquals("rnbqkb1r/pppppppp/5n2/8/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 1 2", game.toFen());
+
+        game.unmakeMove(undo);
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", game.toFen());
+    }
+
+    @Test
+    @DisplayName("Board Placement Test")
+    public void boardPlacementTest() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR", board.toFen());
+        Assertions.assertEquals(board, ChessBoard.fromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR"));
+    }
+
+    @Test
+    @DisplayName("Optional Fields Test")
+    public void optionalFieldsTest() {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/8/8/8/4K3 b");
+
+        Assertions.assertEquals("4k3/8/8/8/8/8/8/4K3 b - - 0 1", game.toFen());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("4k3/8/8/8/8/8/8/4K3 w - - x 1"));
+    }
+}
@@ -0,0 +1,61 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class HistoryTests {
+
+    @Test
+    @DisplayName("Undo Restores Every Position Test")
+    public void undoTest() {
+        // The reference positions reach castling, en passant and promotions within a few moves
+        for (Perft.Reference reference : Perft.REFERENCE_POSITIONS) {
+            ChessGame game = ChessGame.fromFen(reference.fen());
+            Random random = new Random(reference.name().hashCode());
+            List<String> positions = new ArrayList<>();
+            List<ChessMove> played = new ArrayList<>();
+
+            for (int ply = 0; ply < 60 && game.hasAnyLegalMove(game.getTeamTurn()); ++ply) {
+                List<ChessMove> moves = new ArrayList<>(game.legalMoves(game.getTeamTurn()));
+                ChessMove move = moves.get(random.nextInt(moves.size()));
+
+                positions.add(game.toFen());
+                played.add(move);
+                game.applyMove(move);
+            }
+
+            Assertions.assertEquals(played, game.getMoveHistory(), reference.name());
+            Assertions.assertEquals(played.size(), game.getPlyCount());
+
+            for (int ply = played.size() - 1; ply >= 0; --ply) {
+                Assertions.assertEquals(played.get(ply), game.undoMove());
+                Assertions.assertEquals(positions.get(ply), game.toFen(), reference.name() + " ply " + ply);
+            }
+
+            Assertions.assertNull(game.undoMove());
+            Assertions.assertEquals(reference.fen(), game.toFen());
+        }
+    }
+
+    @Test
+    @DisplayName("Encoding Keeps History Test")
+    public void encodingTest() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(7, 4), ChessPosition.of(5, 4), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(4, 5), ChessPosition.of(5, 4), null));
+
+        ChessGame decoded = GameCodec.decode(GameCodec.encode(game, true));
+
+        Assertions.assertEquals(game.toFen(), decoded.toFen());
+        Assertions.assertEquals(game.getMoveHistory(), decoded.getMoveHistory());
+
+        decoded.undoMove();
+        decoded.undoMove();
+        decoded.undoMove();
+        Assertions.assertEquals(new ChessGame().toFen(), decoded.toFen());
+    }
+}
@@ -0,0 +1,74 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import java.util.Collection;
+import java.util.Set;
+
+public class LegalityTests {
+
+    @Test
+    @DisplayName("Pinned Bishop Cannot Move Test")
+    public void pinnedBishopTest() {
+        ChessGame game = ChessGame.fromFen("4r2k/8/8/8/8/8/4B3/4K3 w - - 0 1");
+
+        Assertions.assertTrue(game.validMoves(ChessPosition.of(2, 5)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Pinned Rook Moves Along Pin Test")
+    public void pinnedRookTest() {
+        ChessGame game = ChessGame.fromFen("4r2k/8/8/8/8/8/4R3/4K3 w - - 0 1");
+        Collection<ChessMove> moves = game.validMoves(ChessPosition.of(2, 5));
+
+        Assertions.assertEquals(6, moves.size());
+        for (ChessMove move : moves) {
+            Assertions.assertEquals(5, move.getEndPosition().getColumn(), move.toString());
+        }
+        Assertions.assertTrue(moves.contains(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(8, 5), null)));
+    }
+
+    @Test
+    @DisplayName("En Passant Uncovering King Test")
+    public void enPassantDiscoveryTest() {
+        // Taking c6 en passant would take both pawns off the fifth row and expose the king to the rook
+        ChessGame game = ChessGame.fromFen("8/8/8/KPp4r/8/8/8/4k3 w - c6 0 1");
+        Assertions.assertEquals(Set.of(ChessMove.of(ChessPosition.of(5, 2), ChessPosition.of(6, 2), null)),
+                Set.copyOf(game.validMoves(ChessPosition.of(5, 2))));
+
+        // Without the rook the capture is fine
+        ChessGame safe = ChessGame.fromFen("8/8/8/KPp5/8/8/8/4k3 w - c6 0 1");
+        Assertions.assertTrue(safe.validMoves(ChessPosition.of(5, 2)).contains(
+                ChessMove.of(ChessPosition.of(5, 2), ChessPosition.of(6, 3), null)));
+    }
+
+    @Test
+    @DisplayName("En Passant Answers Check Test")
+    public void enPassantAnswersCheckTest() {
+        // The pawn that just moved gives check, and capturing it en passant is the only pawn move that helps
+        ChessGame game = ChessGame.fromFen("8/8/8/2pP4/1K6/8/8/4k3 w - c6 0 1");
+
+        Assertions.assertTrue(game.isInCheck(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(Set.of(ChessMove.of(ChessPosition.of(5, 4), ChessPosition.of(6, 3), null)),
+                Set.copyOf(game.validMoves(ChessPosition.of(5, 4))));
+    }
+
+    @Test
+    @DisplayName("Legal Moves Match Filtered Moves Test")
+    public void legalMatchesFilteredTest() {
+        for (Perft.Reference reference : Perft.REFERENCE_POSITIONS) {
+            ChessGame game = ChessGame.fromFen(reference.fen());
+            ChessBoard board = game.getBoard();
+
+            MoveList pseudoLegal = new MoveList();
+            MoveGenerator.generate(board, game.getTeamTurn(), pseudoLegal);
+            int legal = 0;
+            for (int i = 0; i < pseudoLegal.size(); ++i) {
+                if (MoveGenerator.isLegal(board, pseudoLegal.get(i))) { ++legal; }
+            }
+
+            Assertions.assertEquals(legal, MoveGenerator.generateLegal(board, game.getTeamTurn(), new MoveList()),
+                    reference.name());
+        }
+    }
+}
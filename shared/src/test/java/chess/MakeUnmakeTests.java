@@ -0,0 +1,50 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+public class MakeUnmakeTests {
+
+    @Test
+    @DisplayName("Unmake Restores Every Move Test")
+    public void unmakeEveryMoveTest() {
+        // The reference positions have castling, en passant, promotions and captures among their moves
+        for (Perft.Reference reference : Perft.REFERENCE_POSITIONS) {
+            ChessGame game = ChessGame.fromFen(reference.fen());
+            ChessGame original = new ChessGame(game);
+            long key = game.positionKey();
+            String fen = game.toFen();
+
+            for (ChessMove move : game.legalMoves(game.getTeamTurn())) {
+                MoveUndo undo = game.applyMove(move);
+                Assertions.assertNotEquals(original, game, reference.name() + " " + move);
+
+                game.unmakeMove(undo);
+                Assertions.assertEquals(original, game, reference.name() + " " + move);
+                Assertions.assertEquals(original.hashCode(), game.hashCode(), reference.name() + " " + move);
+                Assertions.assertEquals(key, game.positionKey(), reference.name() + " " + move);
+                Assertions.assertEquals(fen, game.toFen(), reference.name() + " " + move);
+            }
+
+            Assertions.assertEquals(0, game.getPlyCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Unmake Promotion Capture Test")
+    public void unmakePromotionCaptureTest() {
+        ChessGame game = ChessGame.fromFen("1r2k3/P7/8/8/8/8/8/4K3 w - - 3 20");
+        ChessGame original = new ChessGame(game);
+
+        MoveUndo undo = game.applyMove(ChessMove.of(ChessPosition.of(7, 1), ChessPosition.of(8, 2), ChessPiece.PieceType.QUEEN));
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN),
+                game.getBoard().getPiece(ChessPosition.of(8, 2)));
+
+        game.unmakeMove(undo);
+        Assertions.assertEquals(original, game);
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN),
+                game.getBoard().getPiece(ChessPosition.of(7, 1)));
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK),
+                game.getBoard().getPiece(ChessPosition.of(8, 2)));
+        Assertions.assertEquals("1r2k3/P7/8/8/8/8/8/4K3 w - - 3 20", game.toFen());
+    }
+}
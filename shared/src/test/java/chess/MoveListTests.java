@@ -0,0 +1,72 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import java.util.HashSet;
+
+public class MoveListTests {
+
+    @Test
+    @DisplayName("Packed Move Round Trip Test")
+    public void packedMoveTest() {
+        for (int from = 0; from < 64; ++from) {
+            for (int to = 0; to < 64; ++to) {
+                int move = PackedMove.of(from, to, null, PackedMove.CAPTURE | PackedMove.EN_PASSANT);
+
+                Assertions.assertEquals(from, PackedMove.from(move));
+                Assertions.assertEquals(to, PackedMove.to(move));
+                Assertions.assertNull(PackedMove.promotion(move));
+                Assertions.assertTrue(PackedMove.isCapture(move));
+                Assertions.assertTrue(PackedMove.isEnPassant(move));
+                Assertions.assertFalse(PackedMove.isDoublePush(move));
+                Assertions.assertFalse(PackedMove.isCastling(move));
+            }
+        }
+
+        for (ChessPiece.PieceType promotion : ChessPiece.PieceType.values()) {
+            ChessMove chessMove = ChessMove.of(ChessPosition.of(7, 3), ChessPosition.of(8, 4), promotion);
+            int move = PackedMove.of(chessMove);
+
+            Assertions.assertEquals(promotion, PackedMove.promotion(move));
+            Assertions.assertEquals(chessMove, PackedMove.toChessMove(move));
+            Assertions.assertTrue(PackedMove.sameMove(move, move | PackedMove.CAPTURE));
+        }
+    }
+
+    @Test
+    @DisplayName("Move List Reuse Test")
+    public void reuseTest() {
+        ChessBoard board = ChessBoard.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R");
+        MoveList moves = new MoveList();
+
+        int count = MoveGenerator.generate(board, ChessGame.TeamColor.WHITE, moves);
+        Assertions.assertEquals(count, moves.size());
+        HashSet<ChessMove> first = new HashSet<>(moves.toChessMoves());
+
+        // Refilling after clear gives the same moves, with nothing left over from before
+        moves.clear();
+        Assertions.assertEquals(0, moves.size());
+        Assertions.assertEquals(count, MoveGenerator.generate(board, ChessGame.TeamColor.WHITE, moves));
+        Assertions.assertEquals(first, new HashSet<>(moves.toChessMoves()));
+
+        // Without clearing, generation appends after the moves already in the list
+        Assertions.assertEquals(count, MoveGenerator.generate(board, ChessGame.TeamColor.WHITE, moves));
+        Assertions.assertEquals(2 * count, moves.size());
+    }
+
+    @Test
+    @DisplayName("Move List Grows Test")
+    public void growTest() {
+        MoveList moves = new MoveList();
+
+        for (int i = 0; i < 1000; ++i) {
+            moves.add(PackedMove.of(i & 63, (i >>> 6) & 63, null, 0));
+        }
+
+        Assertions.assertEquals(1000, moves.size());
+        for (int i = 0; i < 1000; ++i) {
+            Assertions.assertEquals(i & 63, PackedMove.from(moves.get(i)));
+            Assertions.assertEquals((i >>> 6) & 63, PackedMove.to(moves.get(i)));
+        }
+    }
+}
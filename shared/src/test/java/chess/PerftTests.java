@@ -0,0 +1,62 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+public class PerftTests {
+
+    @Test
+    @DisplayName("Reference Positions Test")
+    public void referencePositionsTest() {
+        // Depth 3 reaches castling, en passant, promotion and pins while keeping the test fast
+        for (Perft.Reference reference : Perft.REFERENCE_POSITIONS) {
+            ChessGame game = Fen.parse(reference.fen());
+
+            for (int depth = 1; depth <= 3; ++depth) {
+                Assertions.assertEquals(reference.nodes()[depth - 1], Perft.perft(game, depth),
+                        reference.name() + " at depth " + depth);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Perft Leaves Game Unchanged Test")
+    public void unchangedGameTest() {
+        ChessGame game = Fen.parse(Perft.REFERENCE_POSITIONS.get(1).fen());
+        ChessGame copy = new ChessGame(game);
+        long key = game.positionKey();
+
+        Perft.perft(game, 3);
+
+        Assertions.assertEquals(copy, game);
+        Assertions.assertEquals(key, game.positionKey());
+    }
+
+    @Test
+    @DisplayName("Divide Test")
+    public void divideTest() {
+        ChessGame game = Fen.parse(Perft.START_FEN);
+
+        Map<ChessMove, Long> counts = Perft.divide(game, 3);
+
+        Assertions.assertEquals(20, counts.size());
+        Assertions.assertEquals(8902, counts.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    @DisplayName("Parallel Perft Test")
+    public void parallelPerftTest() {
+        ChessGame game = Fen.parse(Perft.REFERENCE_POSITIONS.get(1).fen());
+
+        Assertions.assertEquals(97862, Perft.parallelPerft(game, 3, ForkJoinPool.commonPool()));
+    }
+
+    @Test
+    @DisplayName("Invalid FEN Test")
+    public void invalidFenTest() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.parse("rnbqkbnr/pppppppp/8/8 w - -"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.parse(Perft.START_FEN.replace(" w ", " x ")));
+    }
+}
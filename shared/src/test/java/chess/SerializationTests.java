@@ -0,0 +1,130 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.*;
+
+public class SerializationTests {
+
+    private final Gson gson = new Gson();
+
+    @Test
+    @DisplayName("Position JSON Test")
+    public void positionJsonTest() {
+        ChessPosition position = ChessPosition.of(2, 5);
+
+        Assertions.assertEquals("{\"row\":2,\"col\":5}", gson.toJson(position));
+        Assertions.assertSame(position, gson.fromJson("{\"row\":2,\"col\":5}", ChessPosition.class));
+    }
+
+    @Test
+    @DisplayName("Move JSON Test")
+    public void moveJsonTest() {
+        ChessMove move = ChessMove.of(ChessPosition.of(7, 3), ChessPosition.of(8, 3), ChessPiece.PieceType.QUEEN);
+        String json = "{\"startPosition\":{\"row\":7,\"col\":3},\"endPosition\":{\"row\":8,\"col\":3}," +
+                "\"promotionPiece\":\"QUEEN\"}";
+
+        Assertions.assertEquals(json, gson.toJson(move));
+        Assertions.assertSame(move, gson.fromJson(json, ChessMove.class));
+        Assertions.assertEquals("{\"startPosition\":{\"row\":2,\"col\":5},\"endPosition\":{\"row\":4,\"col\":5}}",
+                gson.toJson(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null)));
+    }
+
+    @Test
+    @DisplayName("Shared Instances Equal New Instances Test")
+    public void sharedInstancesTest() {
+        ChessMove move = new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null);
+
+        Assertions.assertEquals(move, ChessMove.of(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null));
+        Assertions.assertEquals(move.hashCode(), ChessMove.of(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null).hashCode());
+        Assertions.assertNotSame(ChessPosition.of(9, 1), ChessPosition.of(9, 1));
+    }
+
+    @Test
+    @DisplayName("Binary Round Trip Test")
+    public void binaryRoundTripTest() throws InvalidMoveException {
+        ChessGame game = Fen.parse(Perft.REFERENCE_POSITIONS.get(1).fen());
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 1), ChessPosition.of(4, 1), null));
+        game.finishGame();
+
+        byte[] encoded = GameCodec.encode(game);
+        ChessGame decoded = GameCodec.decode(encoded);
+
+        Assertions.assertEquals(GameCodec.LENGTH, encoded.length);
+        Assertions.assertEquals(game, decoded);
+        Assertions.assertEquals(0, decoded.getPlyCount());
+        Assertions.assertEquals(game.positionKey(), decoded.positionKey());
+        Assertions.assertEquals(game.toFen(), decoded.toFen());
+        Assertions.assertTrue(decoded.isFinished());
+        Assertions.assertEquals(game.legalMoves(game.getTeamTurn()).size(), decoded.legalMoves(decoded.getTeamTurn()).size());
+    }
+
+    @Test
+    @DisplayName("Long Game Encoding Test")
+    public void longGameEncodingTest() {
+        ChessGame game = new ChessGame();
+        ChessMove[] shuffle = {
+                ChessMove.of(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null),
+                ChessMove.of(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null),
+                ChessMove.of(ChessPosition.of(3, 6), ChessPosition.of(1, 7), null),
+                ChessMove.of(ChessPosition.of(6, 6), ChessPosition.of(8, 7), null)
+        };
+        for (int ply = 0; ply < 501; ++ply) { game.applyMove(shuffle[ply % shuffle.length]); }
+
+        // The position alone stays the same size however long the game gets
+        byte[] encoded = GameCodec.encode(game);
+        ChessGame decoded = GameCodec.decode(encoded);
+
+        Assertions.assertEquals(GameCodec.LENGTH, encoded.length);
+        Assertions.assertEquals(game, decoded);
+        Assertions.assertEquals(game.toFen(), decoded.toFen());
+        Assertions.assertEquals(game.positionKey(), decoded.positionKey());
+
+        byte[] withHistory = GameCodec.encode(game, true);
+        ChessGame replayed = GameCodec.decode(withHistory);
+
+        Assertions.assertEquals(GameCodec.LENGTH + 2 + 2 * 501, withHistory.length);
+        Assertions.assertEquals(game.toFen(), replayed.toFen());
+        Assertions.assertEquals(game.getMoveHistory(), replayed.getMoveHistory());
+    }
+
+    @Test
+    @DisplayName("Game JSON Round Trip Test")
+    public void gameJsonTest() {
+        ChessGame game = Fen.parse("r3k2r/8/8/8/8/8/8/R3K2R b Kq - 0 1");
+        ChessGame read = gson.fromJson(gson.toJson(game), ChessGame.class);
+
+        Assertions.assertEquals(game, read);
+        Assertions.assertEquals(game.positionKey(), read.positionKey());
+        Assertions.assertThrows(Exception.class, () -> gson.fromJson("{\"encoded\":\"AAAA\"}", ChessGame.class));
+    }
+
+    @Test
+    @DisplayName("Legacy Game JSON Test")
+    public void legacyGameJsonTest() {
+        // The shape Gson gave games by reflection: rows of pieces with their flags, nulls for empty squares
+        StringBuilder squares = new StringBuilder();
+        for (int row = 1; row <= 8; ++row) {
+            squares.append(row == 1 ? "[" : ",[");
+            for (int col = 1; col <= 8; ++col) {
+                if (col > 1) { squares.append(','); }
+
+                if (row == 1 && col == 5) {
+                    squares.append("{\"pieceColor\":\"WHITE\",\"type\":\"KING\",\"moved\":false,\"enPassantable\":false}");
+                } else if (row == 1 && col == 8) {
+                    squares.append("{\"pieceColor\":\"WHITE\",\"type\":\"ROOK\",\"moved\":false,\"enPassantable\":false}");
+                } else if (row == 8 && col == 5) {
+                    squares.append("{\"pieceColor\":\"BLACK\",\"type\":\"KING\",\"moved\":true,\"enPassantable\":false}");
+                } else {
+                    squares.append("null");
+                }
+            }
+            squares.append(']');
+        }
+        String json = "{\"board\":{\"squares\":[" + squares + "]},\"teamTurn\":\"BLACK\",\"finished\":true}";
+
+        ChessGame game = gson.fromJson(json, ChessGame.class);
+
+        Assertions.assertEquals(Fen.parse("4k3/8/8/8/8/8/8/4K2R b K - 0 1").positionKey(), game.positionKey());
+        Assertions.assertTrue(game.isFinished());
+    }
+}
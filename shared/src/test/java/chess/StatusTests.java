@@ -0,0 +1,109 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+public class StatusTests {
+
+    @Test
+    @DisplayName("Start Position Status Test")
+    public void startPositionTest() {
+        ChessGame game = new ChessGame();
+
+        Assertions.assertEquals(new GameStatus(GameStatus.State.ONGOING, 20), game.getStatus());
+        Assertions.assertSame(game.getStatus(), game.getStatus());
+    }
+
+    @Test
+    @DisplayName("En Passant Status Cached Test")
+    public void enPassantStatusCachedTest() {
+        // Checking the en passant capture moves pieces and puts them back, which mustn't spoil the cache
+        ChessGame game = Fen.parse("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1");
+
+        Assertions.assertSame(game.getStatus(), game.getStatus());
+    }
+
+    @Test
+    @DisplayName("Status Follows Moves Test")
+    public void statusFollowsMovesTest() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+
+        // Fool's mate
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 6), ChessPosition.of(3, 6), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(7, 5), ChessPosition.of(5, 5), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 7), ChessPosition.of(4, 7), null));
+        Assertions.assertEquals(GameStatus.State.ONGOING, game.getStatus().state());
+
+        game.makeMove(ChessMove.of(ChessPosition.of(8, 4), ChessPosition.of(4, 8), null));
+        Assertions.assertEquals(new GameStatus(GameStatus.State.CHECKMATE, 0), game.getStatus());
+        Assertions.assertTrue(game.isInCheckmate(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    @DisplayName("Check And Stalemate Status Test")
+    public void checkAndStalemateTest() {
+        Assertions.assertEquals(GameStatus.State.CHECK, Fen.parse("4k3/8/8/8/8/8/8/4K2r w - - 0 1").getStatus().state());
+        Assertions.assertEquals(GameStatus.State.STALEMATE, Fen.parse("7k/8/6Q1/8/8/8/8/K7 b - - 0 1").getStatus().state());
+    }
+
+    @Test
+    @DisplayName("Threefold Repetition Test")
+    public void repetitionTest() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        ChessMove[] knightDance = {
+                ChessMove.of(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null),
+                ChessMove.of(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null),
+                ChessMove.of(ChessPosition.of(3, 6), ChessPosition.of(1, 7), null),
+                ChessMove.of(ChessPosition.of(6, 6), ChessPosition.of(8, 7), null)
+        };
+
+        for (int repeat = 0; repeat < 2; ++repeat) {
+            for (ChessMove move : knightDance) {
+                Assertions.assertFalse(game.getStatus().state().isGameOver());
+                game.makeMove(move);
+            }
+        }
+
+        Assertions.assertTrue(game.isThreefoldRepetition());
+        Assertions.assertEquals(GameStatus.State.THREEFOLD_REPETITION, game.getStatus().state());
+
+        game.undoMove();
+        Assertions.assertEquals(GameStatus.State.ONGOING, game.getStatus().state());
+    }
+
+    @Test
+    @DisplayName("Lost Castling Rights Are Not A Repetition Test")
+    public void castlingRightsRepetitionTest() throws InvalidMoveException {
+        ChessGame game = Fen.parse("r3k3/8/8/8/8/8/8/4K2R w K - 0 1");
+
+        // The rook leaves and comes back twice, but the first position still had castling rights
+        for (int repeat = 0; repeat < 2; ++repeat) {
+            game.makeMove(ChessMove.of(ChessPosition.of(1, 8), ChessPosition.of(2, 8), null));
+            game.makeMove(ChessMove.of(ChessPosition.of(8, 1), ChessPosition.of(7, 1), null));
+            game.makeMove(ChessMove.of(ChessPosition.of(2, 8), ChessPosition.of(1, 8), null));
+            game.makeMove(ChessMove.of(ChessPosition.of(7, 1), ChessPosition.of(8, 1), null));
+        }
+
+        Assertions.assertFalse(game.isThreefoldRepetition());
+    }
+
+    @Test
+    @DisplayName("Fifty Move Rule Test")
+    public void fiftyMoveTest() {
+        Assertions.assertEquals(GameStatus.State.FIFTY_MOVE_RULE,
+                Fen.parse("4k3/8/8/8/8/8/8/4K2R w - - 100 80").getStatus().state());
+        Assertions.assertEquals(GameStatus.State.ONGOING,
+                Fen.parse("4k3/8/8/8/8/8/8/4K2R w - - 99 80").getStatus().state());
+        Assertions.assertEquals(GameStatus.State.CHECKMATE,
+                Fen.parse("R3k3/8/4K3/8/8/8/8/8 b - - 100 80").getStatus().state());
+    }
+
+    @Test
+    @DisplayName("Clocks Reset Status Test")
+    public void clocksResetStatusTest() {
+        ChessGame game = Fen.parse("4k3/8/8/8/8/8/8/4K2R w - - 0 1");
+        Assertions.assertEquals(GameStatus.State.ONGOING, game.getStatus().state());
+
+        game.setClocks(100, 80);
+        Assertions.assertEquals(GameStatus.State.FIFTY_MOVE_RULE, game.getStatus().state());
+    }
+}
@@ -0,0 +1,84 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class ZobristTests {
+
+    @Test
+    @DisplayName("Transposition Same Key Test")
+    public void transpositionTest() throws InvalidMoveException {
+        ChessGame knightsFirst = new ChessGame();
+        knightsFirst.makeMove(ChessMove.of(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null));
+        knightsFirst.makeMove(ChessMove.of(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null));
+        knightsFirst.makeMove(ChessMove.of(ChessPosition.of(1, 2), ChessPosition.of(3, 3), null));
+
+        ChessGame queenKnightFirst = new ChessGame();
+        queenKnightFirst.makeMove(ChessMove.of(ChessPosition.of(1, 2), ChessPosition.of(3, 3), null));
+        queenKnightFirst.makeMove(ChessMove.of(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null));
+        queenKnightFirst.makeMove(ChessMove.of(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null));
+
+        Assertions.assertEquals(knightsFirst.positionKey(), queenKnightFirst.positionKey());
+        Assertions.assertEquals(knightsFirst.hashCode(), queenKnightFirst.hashCode());
+        Assertions.assertEquals(ChessGame.fromFen(knightsFirst.toFen()).positionKey(), knightsFirst.positionKey());
+    }
+
+    @Test
+    @DisplayName("Key Includes Castling Rights Test")
+    public void castlingRightsTest() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        long start = game.positionKey();
+
+        // The rooks go out and come back, so the pieces are where they started but castling is gone
+        game.makeMove(ChessMove.of(ChessPosition.of(1, 8), ChessPosition.of(1, 7), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(8, 8), ChessPosition.of(8, 7), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(1, 7), ChessPosition.of(1, 8), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(8, 7), ChessPosition.of(8, 8), null));
+
+        Assertions.assertNotEquals(start, game.positionKey());
+        Assertions.assertEquals(ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w Qq - 4 3").positionKey(), game.positionKey());
+    }
+
+    @Test
+    @DisplayName("Key Includes Capturable En Passant Test")
+    public void enPassantTest() throws InvalidMoveException {
+        // No black pawn can take e4 en passant, so the key is the same as without the target square
+        ChessGame game = new ChessGame();
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        Assertions.assertEquals(ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1").positionKey(),
+                game.positionKey());
+
+        // With a pawn beside it the capture is possible, and the key changes
+        ChessGame capturable = ChessGame.fromFen("4k3/8/8/8/3p4/8/4P3/4K3 w - - 0 1");
+        capturable.makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        Assertions.assertNotEquals(ChessGame.fromFen("4k3/8/8/8/3pP3/8/8/4K3 b - - 0 1").positionKey(),
+                capturable.positionKey());
+        Assertions.assertEquals(ChessGame.fromFen("4k3/8/8/8/3pP3/8/8/4K3 b - e3 0 1").positionKey(),
+                capturable.positionKey());
+    }
+
+    @Test
+    @DisplayName("Incremental Key Matches Fresh Key Test")
+    public void incrementalKeyTest() {
+        // Random games through positions with castling, en passant and promotions
+        for (Perft.Reference reference : Perft.REFERENCE_POSITIONS) {
+            ChessGame game = ChessGame.fromFen(reference.fen());
+            Random random = new Random(reference.name().hashCode());
+
+            for (int ply = 0; ply < 80 && game.hasAnyLegalMove(game.getTeamTurn()); ++ply) {
+                List<ChessMove> moves = new ArrayList<>(game.legalMoves(game.getTeamTurn()));
+                game.applyMove(moves.get(random.nextInt(moves.size())));
+
+                Assertions.assertEquals(ChessGame.fromFen(game.toFen()).positionKey(), game.positionKey(),
+                        reference.name() + " ply " + ply);
+            }
+
+            while (game.undoMove() != null) {
+                Assertions.assertEquals(ChessGame.fromFen(game.toFen()).positionKey(), game.positionKey(), reference.name());
+            }
+        }
+    }
+}
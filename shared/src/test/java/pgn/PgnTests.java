@@ -0,0 +1,110 @@
+package pgn;
+
+import chess.*;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class PgnTests {
+
+    private static final String OPERA_GAME = """
+            [Event "Paris"]
+            [Site "Paris FRA"]
+            [Date "1858.??.??"]
+            [Round "?"]
+            [White "Paul Morphy"]
+            [Black "Duke Karl / Count Isouard"]
+            [Result "1-0"]
+
+            1. e4 e5 2. Nf3 d6 3. d4 Bg4 {This is a weak move already.} 4. dxe5 Bxf3
+            (4... dxe5 5. Qxd8+ Kxd8 6. Nxe5) 5. Qxf3 dxe5 6. Bc4 Nf6 7. Qb3 Qe7 8. Nc3 c6
+            9. Bg5 b5 $6 10. Nxb5 cxb5 11. Bxb5+ Nbd7 12. O-O-O Rd8 13. Rxd7 Rxd7 14. Rd1 Qe6
+            15. Bxd7+ Nxd7 16. Qb8+ Nxb8 17. Rd8# 1-0
+            """;
+
+    @Test
+    @DisplayName("Read Game With Comments Test")
+    public void readGameTest() throws IOException, PgnException {
+        PgnGame pgn = new PgnReader(new StringReader(OPERA_GAME)).next();
+
+        Assertions.assertEquals("Paul Morphy", pgn.tag("White"));
+        Assertions.assertEquals("1-0", pgn.result());
+        Assertions.assertEquals(33, pgn.moves().size());
+
+        ChessGame game = PgnImporter.replay(pgn).game();
+        Assertions.assertEquals("1n1Rkb1r/p4ppp/4q3/4p1B1/4P3/8/PPP2PPP/2K5 b k - 1 17", game.toFen());
+        Assertions.assertTrue(game.isInCheckmate(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("Write And Read Back Test")
+    public void roundTripTest() throws IOException, PgnException, InvalidMoveException {
+        PgnImporter.ImportedGame imported = PgnImporter.replay(new PgnReader(new StringReader(OPERA_GAME)).next());
+        String written = PgnWriter.write(Map.of("White", "Paul Morphy"), new ChessGame(), imported.moves());
+
+        Assertions.assertTrue(written.startsWith("[Event \"?\"]\n"));
+        Assertions.assertTrue(written.contains("12. O-O-O Rd8"));
+        Assertions.assertTrue(written.contains("17. Rd8# 1-0"));
+        for (String line : written.split("\n")) {
+            Assertions.assertTrue(line.length() < 80, line);
+        }
+
+        Assertions.assertEquals(written, PgnWriter.write(Map.of("White", "Paul Morphy"), imported.game()));
+
+        PgnGame reread = new PgnReader(new StringReader(written)).next();
+        Assertions.assertEquals("1-0", reread.result());
+        Assertions.assertEquals(imported.moves(), PgnImporter.replay(reread).moves());
+    }
+
+    @Test
+    @DisplayName("Disambiguation And Promotion Test")
+    public void sanTest() throws PgnException {
+        ChessGame game = ChessGame.fromFen("4k3/1P6/8/8/8/8/4K3/R6R w - - 0 1");
+
+        ChessMove rookMove = ChessMove.of(ChessPosition.of(1, 1), ChessPosition.of(1, 4), null);
+        Assertions.assertEquals("Rad1", San.format(game, rookMove));
+        Assertions.assertEquals(rookMove, San.parse(game, "Rad1"));
+        Assertions.assertThrows(PgnException.class, () -> San.parse(game, "Rd1"));
+
+        ChessMove promotion = ChessMove.of(ChessPosition.of(7, 2), ChessPosition.of(8, 2), ChessPiece.PieceType.QUEEN);
+        Assertions.assertEquals("b8=Q+", San.format(game, promotion));
+        Assertions.assertEquals(promotion, San.parse(game, "b8=Q+"));
+        Assertions.assertEquals(promotion, San.parse(game, "b8Q"));
+
+        ChessGame castling = ChessGame.fromFen("4k3/8/8/8/8/8/8/R3K2R w K - 0 1");
+        Assertions.assertEquals("O-O", San.format(castling, San.parse(castling, "0-0")));
+        Assertions.assertThrows(PgnException.class, () -> San.parse(castling, "O-O-O"));
+    }
+
+    @Test
+    @DisplayName("Import File Test")
+    public void importTest() throws Exception {
+        Path file = Files.createTempFile("games", ".pgn");
+        try {
+            String illegal = "[Event \"Broken\"]\n\n1. e4 e5 2. Ke3 *\n\n";
+            String badTag = "[Event \"Broken]\n[Site \"?\"]\n\n1. d4 d5 {a comment [with a bracket]} 1-0\n\n";
+            String fromFen = "[FEN \"4k3/8/8/8/8/8/8/4K2R w K - 0 1\"]\n\n1. O-O Kd7 2. Rd1+ *\n";
+            Files.writeString(file, OPERA_GAME + "\n" + illegal + badTag + OPERA_GAME + fromFen);
+
+            ConcurrentLinkedQueue<PgnImporter.ImportedGame> games = new ConcurrentLinkedQueue<>();
+            PgnImporter.Result result = PgnImporter.importFile(file, 2, games::add);
+
+            Assertions.assertEquals(3, result.games());
+            Assertions.assertEquals(2, result.failures());
+            Assertions.assertEquals(33 + 33 + 3, result.moves());
+
+            List<String> fens = new ArrayList<>();
+            for (PgnImporter.ImportedGame game : games) { fens.add(game.game().toFen()); }
+            Assertions.assertTrue(fens.contains("8/3k4/8/8/8/8/8/3R2K1 b - - 3 2"), fens.toString());
+        } finally {
+            Files.delete(file);
+        }
+    }
+}